@@ -0,0 +1,73 @@
+package studio;
+
+import arc.math.*;
+import arc.math.geom.*;
+import arc.struct.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+import java.util.concurrent.*;
+
+//the cpu side of a canvas frame and of a touch, minus the actual draw calls;
+//run with -Pjmh.include=Allocation -Pjmh.prof=gc and compare gc.alloc.rate.norm between changes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationBenchmark {
+    @Param({"100", "1000"})
+    public int size;
+
+    private static final int queryCount = 256;
+
+    private NodeCanvas canvas;
+    private final float[] touchX = new float[queryCount];
+    private final float[] touchY = new float[queryCount];
+    private final Vec2 world = new Vec2();
+    private int query = 0;
+
+    @Setup
+    public void setup() {
+        canvas = new NodeCanvas();
+        canvas.nodes = SyntheticGraphs.chain(size);
+        canvas.setSize(1920f, 1080f);
+        canvas.offset.set(-2000f, -600f);
+
+        Rand rand = new Rand(42);
+        for(int i = 0; i < queryCount; i++) {
+            touchX[i] = rand.random(1920f);
+            touchY[i] = rand.random(1080f);
+        }
+    }
+
+    @Benchmark
+    public void frame(Blackhole bh) {
+        Seq<Node> nodes = canvas.nodes;
+        for(int i = 0; i < nodes.size; i++) {
+            Node node = nodes.get(i);
+            for(int j = 0; j < node.connections.size; j++) {
+                EdgeCurve curve = canvas.curve(node, j);
+                if(canvas.isVisible(curve)) {
+                    bh.consume(canvas.screenX(curve.points[0]));
+                }
+            }
+        }
+
+        Seq<Node> visible = canvas.cull();
+        for(int i = 0; i < visible.size; i++) {
+            Node node = visible.get(i);
+            bh.consume(canvas.screenX(node.x) + canvas.screenY(node.y));
+            bh.consume(node.typeTag());
+            bh.consume(node.displayValue());
+        }
+    }
+
+    @Benchmark
+    public Node touch() {
+        int i = query = (query + 1) & (queryCount - 1);
+        canvas.screenToWorld(touchX[i], touchY[i], world);
+        return canvas.getNodeAt(world.x, world.y);
+    }
+}
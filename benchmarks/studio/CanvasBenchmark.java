@@ -0,0 +1,63 @@
+package studio;
+
+import arc.math.*;
+import arc.math.geom.*;
+import arc.struct.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+//hit testing and coordinate conversion on large canvases; query points cover the whole graph and some empty space
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CanvasBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private static final int queryCount = 1024;
+
+    private NodeCanvas canvas;
+    private final float[] queryX = new float[queryCount];
+    private final float[] queryY = new float[queryCount];
+    private final Seq<Node> found = new Seq<>();
+    private final Vec2 screen = new Vec2();
+    private int query = 0;
+
+    @Setup
+    public void setup() {
+        canvas = new NodeCanvas();
+        canvas.nodes = SyntheticGraphs.chain(size);
+        canvas.setSize(1920f, 1080f);
+
+        float maxX = SyntheticGraphs.columns * SyntheticGraphs.spacingX;
+        float maxY = (size / SyntheticGraphs.columns + 1) * SyntheticGraphs.spacingY;
+        Rand rand = new Rand(42);
+        for(int i = 0; i < queryCount; i++) {
+            queryX[i] = rand.random(-500f, maxX + 500f);
+            queryY[i] = rand.random(-500f, maxY + 500f);
+        }
+    }
+
+    @Benchmark
+    public Node getNodeAt() {
+        int i = query = (query + 1) & (queryCount - 1);
+        return canvas.getNodeAt(queryX[i], queryY[i]);
+    }
+
+    //a screen-sized window at the default zoom, as used for culling
+    @Benchmark
+    public Seq<Node> getNodesIn() {
+        int i = query = (query + 1) & (queryCount - 1);
+        return canvas.getNodesIn(queryX[i], queryY[i], 3840f, 2160f, found);
+    }
+
+    @Benchmark
+    public Vec2 worldToScreen() {
+        int i = query = (query + 1) & (queryCount - 1);
+        return canvas.worldToScreen(queryX[i], queryY[i], screen);
+    }
+}
@@ -0,0 +1,37 @@
+package studio;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+//runs a compiled chain to completion against the in-memory host
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutionBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private ScriptRuntime runtime;
+    private ScriptPlan plan;
+
+    @Setup
+    public void setup() {
+        StudioMod.maxChainDepth = Integer.MAX_VALUE;
+        StudioMod.maxNodesPerTrigger = Integer.MAX_VALUE;
+
+        runtime = new ScriptRuntime(new FakeScriptHost());
+        plan = ScriptCompiler.compile(SyntheticGraphs.chain(size));
+        if(plan.error != null) throw new IllegalStateException(plan.error);
+    }
+
+    @Benchmark
+    public int executeNodeChain() {
+        ScriptRun run = new ScriptRun(runtime, plan);
+        run.resume(Integer.MAX_VALUE, Long.MAX_VALUE);
+        return run.visits;
+    }
+}
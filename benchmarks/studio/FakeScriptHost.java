@@ -0,0 +1,77 @@
+package studio;
+
+import mindustry.type.*;
+import mindustry.world.*;
+
+//host with no world behind it for ExecutionBenchmark; the clock stands still so Wait never resumes within a run
+public class FakeScriptHost implements ScriptHost {
+    public int width = 256, height = 256;
+
+    @Override
+    public boolean isActive() {
+        return true;
+    }
+
+    @Override
+    public long millis() {
+        return 0L;
+    }
+
+    @Override
+    public void message(String text, float seconds) {
+    }
+
+    @Override
+    public int wave() {
+        return 1;
+    }
+
+    @Override
+    public int unitCount(UnitType type) {
+        return 0;
+    }
+
+    @Override
+    public float playerX() {
+        return 0f;
+    }
+
+    @Override
+    public float playerY() {
+        return 0f;
+    }
+
+    @Override
+    public boolean hasCore() {
+        return true;
+    }
+
+    @Override
+    public float coreX() {
+        return 0f;
+    }
+
+    @Override
+    public float coreY() {
+        return 0f;
+    }
+
+    @Override
+    public void spawn(UnitType type, float x, float y) {
+    }
+
+    @Override
+    public int worldWidth() {
+        return width;
+    }
+
+    @Override
+    public int worldHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean setBlock(int x, int y, Block block) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+}
@@ -0,0 +1,37 @@
+package studio;
+
+import arc.struct.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+//the script format written by the editor's Save dialog and parsed by Load
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private Seq<Node> nodes;
+    private String json;
+
+    @Setup
+    public void setup() {
+        nodes = SyntheticGraphs.chain(size);
+        json = ScriptSerializer.write(nodes);
+    }
+
+    @Benchmark
+    public String saveScript() {
+        return ScriptSerializer.write(nodes);
+    }
+
+    @Benchmark
+    public Seq<Node> loadScript() throws Exception {
+        return ScriptSerializer.read(json);
+    }
+}
@@ -0,0 +1,47 @@
+package studio;
+
+import arc.graphics.*;
+import arc.struct.*;
+
+//builds editor graphs of a given size for the benchmarks without going through the UI
+public class SyntheticGraphs {
+    //nodes per row when laying a graph out on the canvas
+    public static final int columns = 50;
+    public static final float spacingX = 500f, spacingY = 300f;
+
+    //On Start followed by a straight chain cycling through Set Variable, If and Message
+    public static Seq<Node> chain(int size) {
+        Seq<Node> nodes = new Seq<>();
+        Node previous = node("event", "On Start", Color.green, 0);
+        nodes.add(previous);
+
+        for(int i = 1; i < size; i++) {
+            Node node;
+            switch(i % 3) {
+                case 1:
+                    node = node("logic", "Set Variable", Color.purple, i);
+                    node.inputs.get(0).set("count");
+                    node.inputs.get(1).set("count + 1");
+                    break;
+                case 2:
+                    node = node("logic", "If", Color.orange, i);
+                    node.inputs.get(0).set("count > 0 and wave >= 1");
+                    break;
+                default:
+                    node = node("action", "Message", Color.blue, i);
+                    node.inputs.get(0).set("step " + i);
+                    break;
+            }
+
+            previous.connect(node);
+            nodes.add(node);
+            previous = node;
+        }
+
+        return nodes;
+    }
+
+    private static Node node(String type, String label, Color color, int index) {
+        return new Node(type, label, (index % columns) * spacingX, (index / columns) * spacingY, color);
+    }
+}
@@ -0,0 +1,190 @@
+package studio;
+
+import arc.math.geom.*;
+import arc.struct.*;
+import mindustry.world.*;
+
+public class BlockFill {
+    public static final String[] shapes = {"Single", "Rectangle", "Line", "Mask"};
+    public static final int SHAPE_SINGLE = 0;
+    public static final int SHAPE_RECTANGLE = 1;
+    public static final int SHAPE_LINE = 2;
+    public static final int SHAPE_MASK = 3;
+
+    //scratch for the line clipper; positions only runs on the main thread
+    private static final double[] clipRange = new double[2];
+
+    private final ScriptHost host;
+    private final Queue<Job> jobs = new Queue<>();
+    private final Seq<Job> free = new Seq<>();
+
+    public BlockFill(ScriptHost host) {
+        this.host = host;
+    }
+
+    //filled cells of a mask; rows are separated by '/', any character other than '.' or ' ' is filled and the first row is
+    //the top one. cells are packed with Point2.pack as column and row counted up from the bottom
+    public static IntSeq parseMask(String mask) {
+        IntSeq out = new IntSeq();
+        String[] rows = mask.split("/");
+        for(int row = 0; row < rows.length; row++) {
+            String line = rows[row];
+            for(int col = 0; col < line.length(); col++) {
+                char c = line.charAt(col);
+                if(c != '.' && c != ' ') {
+                    out.add(Point2.pack(col, rows.length - 1 - row));
+                }
+            }
+        }
+        return out;
+    }
+
+    //collects the tile positions of a shape inside a width x height world, packed with Point2.pack;
+    //steps by the block size so multiblocks do not overlap
+    public static void positions(int shape, int x, int y, int x2, int y2, IntSeq mask, int size, int width, int height, IntSeq out) {
+        int step = Math.max(size, 1);
+
+        switch(shape) {
+            case SHAPE_RECTANGLE: {
+                int minX = Math.max(Math.min(x, x2), 0), maxX = Math.min(Math.max(x, x2), width - 1);
+                int minY = Math.max(Math.min(y, y2), 0), maxY = Math.min(Math.max(y, y2), height - 1);
+                for(int ty = minY; ty <= maxY; ty += step) {
+                    for(int tx = minX; tx <= maxX; tx += step) {
+                        out.add(Point2.pack(tx, ty));
+                    }
+                }
+                break;
+            }
+
+            case SHAPE_LINE: {
+                //clip the segment to the world first (Liang-Barsky), so far away end points cost nothing to walk
+                double fx = x, fy = y, ddx = (double)x2 - x, ddy = (double)y2 - y;
+                double[] range = clipRange;
+                range[0] = 0.0;
+                range[1] = 1.0;
+                if(!clip(-ddx, fx, range) || !clip(ddx, width - 1 - fx, range) ||
+                    !clip(-ddy, fy, range) || !clip(ddy, height - 1 - fy, range)) break;
+
+                int startX = (int)Math.round(fx + ddx * range[0]), startY = (int)Math.round(fy + ddy * range[0]);
+                int endX = (int)Math.round(fx + ddx * range[1]), endY = (int)Math.round(fy + ddy * range[1]);
+
+                //keep the block spacing in phase with the unclipped start
+                long skipped = Math.max(Math.abs((long)startX - x), Math.abs((long)startY - y));
+
+                int dx = Math.abs(endX - startX), dy = -Math.abs(endY - startY);
+                int sx = startX < endX ? 1 : -1, sy = startY < endY ? 1 : -1;
+                int err = dx + dy;
+                int tx = startX, ty = startY, n = (int)(skipped % step);
+                while(true) {
+                    if(n++ % step == 0 && inside(tx, ty, width, height)) out.add(Point2.pack(tx, ty));
+                    if(tx == endX && ty == endY) break;
+                    int e2 = 2 * err;
+                    if(e2 >= dy) { err += dy; tx += sx; }
+                    if(e2 <= dx) { err += dx; ty += sy; }
+                }
+                break;
+            }
+
+            case SHAPE_MASK: {
+                if(mask == null) break;
+                for(int i = 0; i < mask.size; i++) {
+                    int cell = mask.items[i];
+                    int tx = x + Point2.x(cell) * step, ty = y + Point2.y(cell) * step;
+                    if(inside(tx, ty, width, height)) out.add(Point2.pack(tx, ty));
+                }
+                break;
+            }
+
+            default:
+                if(inside(x, y, width, height)) out.add(Point2.pack(x, y));
+                break;
+        }
+    }
+
+    //narrows range (entry and exit t) by one clip edge p * t <= q; false when the segment lies fully outside it
+    private static boolean clip(double p, double q, double[] range) {
+        if(p == 0.0) return q >= 0.0;
+
+        double t = q / p;
+        if(p < 0.0) {
+            if(t > range[1]) return false;
+            if(t > range[0]) range[0] = t;
+        } else {
+            if(t < range[0]) return false;
+            if(t < range[1]) range[1] = t;
+        }
+        return true;
+    }
+
+    private static boolean inside(int x, int y, int width, int height) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    //queues the tiles of a shape that lie inside the world; jobs and their position lists are reused once finished
+    public void add(Block block, int shape, int x, int y, int x2, int y2, IntSeq mask) {
+        Job job = free.isEmpty() ? new Job() : free.pop();
+        job.positions.clear();
+        positions(shape, x, y, x2, y2, mask, block.size, host.worldWidth(), host.worldHeight(), job.positions);
+        if(job.positions.isEmpty()) {
+            free.add(job);
+            return;
+        }
+
+        job.block = block;
+        job.index = 0;
+        job.changed = 0;
+        jobs.addLast(job);
+    }
+
+    public int pending() {
+        int total = 0;
+        for(int i = 0; i < jobs.size; i++) {
+            Job job = jobs.get(i);
+            total += job.positions.size - job.index;
+        }
+        return total;
+    }
+
+    public void clear() {
+        while(!jobs.isEmpty()) {
+            free.add(jobs.removeFirst());
+        }
+    }
+
+    //applies up to StudioMod.tilesPerTick queued tiles; called once per frame
+    public void update() {
+        if(jobs.isEmpty()) return;
+
+        if(!host.isActive()) {
+            clear();
+            return;
+        }
+
+        int budget = StudioMod.tilesPerTick;
+        while(budget > 0 && !jobs.isEmpty()) {
+            Job job = jobs.first();
+            int[] items = job.positions.items;
+            int end = Math.min(job.positions.size, job.index + budget);
+            budget -= end - job.index;
+
+            for(int i = job.index; i < end; i++) {
+                if(host.setBlock(Point2.x(items[i]), Point2.y(items[i]), job.block)) {
+                    job.changed++;
+                }
+            }
+            job.index = end;
+
+            if(job.index >= job.positions.size) {
+                free.add(jobs.removeFirst());
+                ScriptTrace.record(ScriptTrace.LEVEL_INFO, ScriptTrace.EVENT_TILES_SET, job.block, job.changed);
+                host.message("Placed " + job.block.name + " on " + job.changed + " tiles", 2);
+            }
+        }
+    }
+
+    private static class Job {
+        Block block;
+        final IntSeq positions = new IntSeq();
+        int index, changed;
+    }
+}
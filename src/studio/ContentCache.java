@@ -0,0 +1,39 @@
+package studio;
+
+import arc.struct.*;
+import mindustry.*;
+import mindustry.type.*;
+import mindustry.world.*;
+
+public class ContentCache {
+    private static final ObjectMap<String, UnitType> units = new ObjectMap<>();
+    private static final ObjectMap<String, Block> blocks = new ObjectMap<>();
+    private static boolean built = false;
+
+    public static void build() {
+        //nothing to index before content loads; lookups retry on the next call
+        if(Vars.content == null) return;
+
+        units.clear();
+        blocks.clear();
+
+        for(UnitType type : Vars.content.units()) {
+            units.put(type.name, type);
+        }
+        for(Block block : Vars.content.blocks()) {
+            blocks.put(block.name, block);
+        }
+
+        built = true;
+    }
+
+    public static UnitType unit(String name) {
+        if(!built) build();
+        return name == null ? null : units.get(name.trim());
+    }
+
+    public static Block block(String name) {
+        if(!built) build();
+        return name == null ? null : blocks.get(name.trim());
+    }
+}
@@ -0,0 +1,44 @@
+package studio;
+
+//world space polyline of the bezier drawn for one connection; rebuilt only when either end has moved
+public class EdgeCurve {
+    public static final int segments = 16;
+
+    public final float[] points = new float[(segments + 1) * 2];
+    public float minX, minY, maxX, maxY;
+
+    private Node target;
+    private float fromX = Float.NaN, fromY, toX, toY;
+
+    public void update(Node source, Node target) {
+        float x0 = source.outputX(), y0 = source.outputY();
+        float x3 = target.inputX(), y3 = target.inputY();
+        if(this.target == target && fromX == x0 && fromY == y0 && toX == x3 && toY == y3) return;
+
+        this.target = target;
+        fromX = x0;
+        fromY = y0;
+        toX = x3;
+        toY = y3;
+
+        //horizontal tangents leaving the output port and entering the input port
+        float pull = Math.max(Math.abs(x3 - x0) * 0.5f, 100f);
+        float x1 = x0 + pull, x2 = x3 - pull;
+
+        minX = maxX = x0;
+        minY = maxY = y0;
+        for(int i = 0; i <= segments; i++) {
+            float t = (float)i / segments, u = 1f - t;
+            float a = u * u * u, b = 3f * u * u * t, c = 3f * u * t * t, d = t * t * t;
+            float px = a * x0 + b * x1 + c * x2 + d * x3;
+            float py = a * y0 + b * y0 + c * y3 + d * y3;
+            points[i * 2] = px;
+            points[i * 2 + 1] = py;
+
+            minX = Math.min(minX, px);
+            minY = Math.min(minY, py);
+            maxX = Math.max(maxX, px);
+            maxY = Math.max(maxY, py);
+        }
+    }
+}
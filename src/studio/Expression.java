@@ -0,0 +1,380 @@
+package studio;
+
+import mindustry.type.*;
+
+//expressions are parsed once into a tree, folded where constant and evaluated to a float; booleans are 1 and 0
+public abstract class Expression {
+
+    public abstract float eval(ScriptValues values, ScriptHost host);
+
+    public byte type() {
+        return ScriptVariables.TYPE_FLOAT;
+    }
+
+    public boolean isConstant() {
+        return false;
+    }
+
+    //resolves variable names to slots of the given table; returns the first unknown name or null
+    public String bind(ScriptVariables vars) {
+        return null;
+    }
+
+    public boolean test(ScriptValues values, ScriptHost host) {
+        return eval(values, host) != 0f;
+    }
+
+    public static Expression parse(String text) {
+        Parser parser = new Parser(text);
+        Expression result = parser.or();
+        parser.skipSpace();
+        if(parser.pos < text.length()) {
+            throw new IllegalArgumentException("Unexpected '" + text.charAt(parser.pos) + "' at " + (parser.pos + 1));
+        }
+        return result;
+    }
+
+    static class Constant extends Expression {
+        final float value;
+        final byte type;
+
+        Constant(float value, byte type) {
+            this.value = value;
+            this.type = type;
+        }
+
+        @Override
+        public float eval(ScriptValues values, ScriptHost host) {
+            return value;
+        }
+
+        @Override
+        public byte type() {
+            return type;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return true;
+        }
+    }
+
+    static class Variable extends Expression {
+        final String name;
+        ScriptVariables bound;
+        int slot = -1;
+
+        Variable(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public float eval(ScriptValues values, ScriptHost host) {
+            if(values.table != bound) {
+                //trees bound to another table still work, just without the cached slot
+                int s = values.table.find(name);
+                return s == -1 ? 0f : values.get(s);
+            }
+            return slot == -1 ? 0f : values.get(slot);
+        }
+
+        @Override
+        public byte type() {
+            //the type of the bound slot; unresolved names read as floats so nothing assigned from them is truncated
+            return slot == -1 ? ScriptVariables.TYPE_FLOAT : bound.type(slot);
+        }
+
+        @Override
+        public String bind(ScriptVariables vars) {
+            bound = vars;
+            slot = vars.find(name);
+            return slot == -1 ? name : null;
+        }
+    }
+
+    static class Wave extends Expression {
+        @Override
+        public float eval(ScriptValues values, ScriptHost host) {
+            return host.wave();
+        }
+
+        @Override
+        public byte type() {
+            return ScriptVariables.TYPE_INT;
+        }
+    }
+
+    static class UnitCount extends Expression {
+        final UnitType unit;
+
+        UnitCount(UnitType unit) {
+            this.unit = unit;
+        }
+
+        @Override
+        public float eval(ScriptValues values, ScriptHost host) {
+            return host.unitCount(unit);
+        }
+
+        @Override
+        public byte type() {
+            return ScriptVariables.TYPE_INT;
+        }
+    }
+
+    static class Unary extends Expression {
+        final char op;
+        final Expression value;
+
+        Unary(char op, Expression value) {
+            this.op = op;
+            this.value = value;
+        }
+
+        @Override
+        public float eval(ScriptValues values, ScriptHost host) {
+            return op == '!' ? (value.eval(values, host) == 0f ? 1f : 0f) : -value.eval(values, host);
+        }
+
+        @Override
+        public byte type() {
+            return op == '!' ? ScriptVariables.TYPE_BOOL : value.type();
+        }
+
+        @Override
+        public String bind(ScriptVariables vars) {
+            return value.bind(vars);
+        }
+    }
+
+    static class Binary extends Expression {
+        static final int ADD = 0, SUB = 1, MUL = 2, DIV = 3, MOD = 4,
+            EQ = 5, NE = 6, LT = 7, LE = 8, GT = 9, GE = 10, AND = 11, OR = 12;
+
+        final int op;
+        final Expression left, right;
+
+        Binary(int op, Expression left, Expression right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public float eval(ScriptValues values, ScriptHost host) {
+            float a = left.eval(values, host);
+            switch(op) {
+                case AND: return a != 0f && right.eval(values, host) != 0f ? 1f : 0f;
+                case OR: return a != 0f || right.eval(values, host) != 0f ? 1f : 0f;
+            }
+
+            float b = right.eval(values, host);
+            switch(op) {
+                case ADD: return a + b;
+                case SUB: return a - b;
+                case MUL: return a * b;
+                case DIV: return b == 0f ? 0f : a / b;
+                case MOD: return b == 0f ? 0f : a % b;
+                case EQ: return a == b ? 1f : 0f;
+                case NE: return a != b ? 1f : 0f;
+                case LT: return a < b ? 1f : 0f;
+                case LE: return a <= b ? 1f : 0f;
+                case GT: return a > b ? 1f : 0f;
+                default: return a >= b ? 1f : 0f;
+            }
+        }
+
+        @Override
+        public byte type() {
+            if(op >= EQ) return ScriptVariables.TYPE_BOOL;
+            if(op == DIV) return ScriptVariables.TYPE_FLOAT;
+            return left.type() == ScriptVariables.TYPE_FLOAT || right.type() == ScriptVariables.TYPE_FLOAT ?
+                ScriptVariables.TYPE_FLOAT : ScriptVariables.TYPE_INT;
+        }
+
+        @Override
+        public String bind(ScriptVariables vars) {
+            String a = left.bind(vars);
+            String b = right.bind(vars);
+            return a != null ? a : b;
+        }
+    }
+
+    static Expression fold(Expression expression) {
+        return expression.isConstant() || !foldable(expression) ? expression :
+            new Constant(expression.eval(null, null), expression.type());
+    }
+
+    private static boolean foldable(Expression expression) {
+        if(expression instanceof Unary) return ((Unary)expression).value.isConstant();
+        if(expression instanceof Binary) return ((Binary)expression).left.isConstant() && ((Binary)expression).right.isConstant();
+        return false;
+    }
+
+    static class Parser {
+        final String text;
+        int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Expression or() {
+            Expression result = and();
+            while(match("||") || matchWord("or")) {
+                result = fold(new Binary(Binary.OR, result, and()));
+            }
+            return result;
+        }
+
+        Expression and() {
+            Expression result = not();
+            while(match("&&") || matchWord("and")) {
+                result = fold(new Binary(Binary.AND, result, not()));
+            }
+            return result;
+        }
+
+        Expression not() {
+            if((peek() == '!' && peek(1) != '=' && match("!")) || matchWord("not")) {
+                return fold(new Unary('!', not()));
+            }
+            return comparison();
+        }
+
+        Expression comparison() {
+            Expression result = sum();
+            int op = -1;
+            if(match("==")) op = Binary.EQ;
+            else if(match("!=")) op = Binary.NE;
+            else if(match("<=")) op = Binary.LE;
+            else if(match(">=")) op = Binary.GE;
+            else if(match("<")) op = Binary.LT;
+            else if(match(">")) op = Binary.GT;
+            else if(match("=")) op = Binary.EQ;
+
+            return op == -1 ? result : fold(new Binary(op, result, sum()));
+        }
+
+        Expression sum() {
+            Expression result = product();
+            while(true) {
+                if(match("+")) result = fold(new Binary(Binary.ADD, result, product()));
+                else if(match("-")) result = fold(new Binary(Binary.SUB, result, product()));
+                else return result;
+            }
+        }
+
+        Expression product() {
+            Expression result = unary();
+            while(true) {
+                if(match("*")) result = fold(new Binary(Binary.MUL, result, unary()));
+                else if(match("/")) result = fold(new Binary(Binary.DIV, result, unary()));
+                else if(match("%")) result = fold(new Binary(Binary.MOD, result, unary()));
+                else return result;
+            }
+        }
+
+        Expression unary() {
+            if(match("-")) return fold(new Unary('-', unary()));
+            if(match("+")) return unary();
+            return primary();
+        }
+
+        Expression primary() {
+            skipSpace();
+            if(pos >= text.length()) throw new IllegalArgumentException("Unexpected end of expression");
+
+            char c = text.charAt(pos);
+
+            if(c == '(') {
+                pos++;
+                Expression result = or();
+                expect(")");
+                return result;
+            }
+
+            if(Character.isDigit(c) || c == '.') {
+                int start = pos;
+                while(pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) pos++;
+                String number = text.substring(start, pos);
+                try {
+                    float value = Float.parseFloat(number);
+                    return new Constant(value, number.indexOf('.') == -1 ? ScriptVariables.TYPE_INT : ScriptVariables.TYPE_FLOAT);
+                } catch(NumberFormatException e) {
+                    throw new IllegalArgumentException("Bad number: " + number);
+                }
+            }
+
+            if(Character.isLetter(c) || c == '_') {
+                int start = pos;
+                while(pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) pos++;
+                String word = text.substring(start, pos);
+
+                switch(word) {
+                    case "true": return new Constant(1f, ScriptVariables.TYPE_BOOL);
+                    case "false": return new Constant(0f, ScriptVariables.TYPE_BOOL);
+                    case "wave": return new Wave();
+                    case "units": return units();
+                }
+                return new Variable(word);
+            }
+
+            throw new IllegalArgumentException("Unexpected '" + c + "' at " + (pos + 1));
+        }
+
+        //units() counts all units of the player's team, units(name) only those of one type
+        Expression units() {
+            expect("(");
+            int start = pos;
+            int end = text.indexOf(')', start);
+            if(end == -1) throw new IllegalArgumentException("Missing ')' after units(");
+            String name = text.substring(start, end).trim();
+            pos = end + 1;
+
+            if(name.isEmpty()) return new UnitCount(null);
+
+            UnitType unit = ContentCache.unit(name);
+            if(unit == null) throw new IllegalArgumentException("Unknown unit type: " + name);
+            return new UnitCount(unit);
+        }
+
+        void skipSpace() {
+            while(pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        char peek() {
+            return peek(0);
+        }
+
+        char peek(int offset) {
+            skipSpace();
+            return pos + offset < text.length() ? text.charAt(pos + offset) : '\0';
+        }
+
+        boolean match(String token) {
+            skipSpace();
+            if(text.startsWith(token, pos)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        boolean matchWord(String word) {
+            skipSpace();
+            int end = pos + word.length();
+            if(text.startsWith(word, pos) && (end >= text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+                pos = end;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(String token) {
+            if(!match(token)) {
+                throw new IllegalArgumentException("Expected '" + token + "' at " + (pos + 1));
+            }
+        }
+    }
+}
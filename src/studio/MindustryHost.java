@@ -0,0 +1,97 @@
+package studio;
+
+import arc.util.*;
+import mindustry.*;
+import mindustry.game.*;
+import mindustry.gen.*;
+import mindustry.type.*;
+import mindustry.world.*;
+
+public class MindustryHost implements ScriptHost {
+
+    //the player's team on clients, the default team on dedicated servers
+    public Team team() {
+        return Vars.player != null && !Vars.headless ? Vars.player.team() : Vars.state.rules.defaultTeam;
+    }
+
+    @Override
+    public boolean isActive() {
+        return Vars.state.isGame();
+    }
+
+    @Override
+    public long millis() {
+        return Time.millis();
+    }
+
+    @Override
+    public void message(String text, float seconds) {
+        if(Vars.ui != null) {
+            Vars.ui.showInfoToast(text, seconds);
+        } else {
+            Log.info("[Studio] " + text);
+        }
+    }
+
+    @Override
+    public int wave() {
+        return Vars.state.wave;
+    }
+
+    @Override
+    public int unitCount(UnitType type) {
+        return type == null ? team().data().units.size : team().data().countType(type);
+    }
+
+    @Override
+    public float playerX() {
+        return Vars.player != null && !Vars.headless ? Vars.player.x : coreX();
+    }
+
+    @Override
+    public float playerY() {
+        return Vars.player != null && !Vars.headless ? Vars.player.y : coreY();
+    }
+
+    @Override
+    public boolean hasCore() {
+        return team().core() != null;
+    }
+
+    @Override
+    public float coreX() {
+        Building core = team().core();
+        return core == null ? 0f : core.x;
+    }
+
+    @Override
+    public float coreY() {
+        Building core = team().core();
+        return core == null ? 0f : core.y;
+    }
+
+    @Override
+    public void spawn(UnitType type, float x, float y) {
+        type.spawn(team(), x, y);
+    }
+
+    @Override
+    public int worldWidth() {
+        return Vars.world.width();
+    }
+
+    @Override
+    public int worldHeight() {
+        return Vars.world.height();
+    }
+
+    @Override
+    public boolean setBlock(int x, int y, Block block) {
+        Team team = team();
+        Tile tile = Vars.world.tile(x, y);
+        if(tile == null || (tile.block() == block && tile.team() == team)) return false;
+
+        tile.setNet(block, team, 0);
+        return true;
+    }
+}
@@ -1,10 +1,12 @@
 package studio;
 
 import arc.graphics.*;
-import arc.math.geom.*;
 import arc.struct.*;
+import mindustry.ctype.*;
 
 public class Node {
+    public static final String[] spawnLocations = {"At Player", "At Core", "At Coordinates"};
+
     public String id;
     public String type;
     public String label;
@@ -14,7 +16,20 @@ public class Node {
     public String value = "";
     public Color color = Color.gray;
 
+    //filled in by ScriptProfiler while profiling is enabled
+    public int profileCalls;
+    public long profileNanos, profileMaxNanos;
+
+    private String tagSource, tag, displaySource, display;
+    //text layouts kept by the canvas, created the first time the node is drawn with labels
+    public NodeText text;
+    //curves of the outgoing connections, same order as connections; kept by the canvas
+    public Seq<EdgeCurve> curves;
+
+    //outgoing links in execution order; change them through connect and disconnect so sources stays in sync
     public Seq<Node> connections = new Seq<>();
+    //reverse index: every node with a link into this one
+    public final ObjectSet<Node> sources = new ObjectSet<>();
     public Seq<NodeInput> inputs = new Seq<>();
 
     public Node() {
@@ -38,16 +53,20 @@ public class Node {
             inputs.add(new NodeInput("Text", "Hello!"));
         }
         else if(label.equals("Spawn Unit")) {
-            inputs.add(new NodeInput("Unit Type", "dagger"));
-            inputs.add(new NodeInput("Amount", "1"));
-            inputs.add(new NodeInput("Spawn Location", "At Player"));
-            inputs.add(new NodeInput("X Coordinate", "0"));
-            inputs.add(new NodeInput("Y Coordinate", "0"));
+            inputs.add(new NodeInput("Unit Type", NodeInput.Kind.UNIT, "dagger"));
+            inputs.add(new NodeInput("Amount", NodeInput.Kind.INT, "1"));
+            inputs.add(new NodeInput("Spawn Location", spawnLocations, "At Player"));
+            inputs.add(new NodeInput("X Coordinate", NodeInput.Kind.FLOAT, "0"));
+            inputs.add(new NodeInput("Y Coordinate", NodeInput.Kind.FLOAT, "0"));
         }
         else if(label.equals("Set Block")) {
-            inputs.add(new NodeInput("X", "10"));
-            inputs.add(new NodeInput("Y", "10"));
-            inputs.add(new NodeInput("Block", "copper-wall"));
+            inputs.add(new NodeInput("X", NodeInput.Kind.INT, "10"));
+            inputs.add(new NodeInput("Y", NodeInput.Kind.INT, "10"));
+            inputs.add(new NodeInput("Block", NodeInput.Kind.BLOCK, "copper-wall"));
+            inputs.add(new NodeInput("Shape", BlockFill.shapes, "Single"));
+            inputs.add(new NodeInput("X2", NodeInput.Kind.INT, "10"));
+            inputs.add(new NodeInput("Y2", NodeInput.Kind.INT, "10"));
+            inputs.add(new NodeInput("Mask", NodeInput.Kind.MASK, "#"));
         }
         else if(label.equals("Create Mod Folder")) {
             inputs.add(new NodeInput("Folder Name", "mymod"));
@@ -82,20 +101,20 @@ public class Node {
             inputs.add(new NodeInput("Author", "YourName"));
         }
         else if(label.equals("Wait")) {
-            inputs.add(new NodeInput("Seconds", "1"));
+            inputs.add(new NodeInput("Seconds", NodeInput.Kind.FLOAT, "1"));
         }
         else if(label.equals("If")) {
-            inputs.add(new NodeInput("Condition", "true"));
+            inputs.add(new NodeInput("Condition", NodeInput.Kind.EXPRESSION, "true"));
         }
         else if(label.equals("Set Variable")) {
             inputs.add(new NodeInput("Variable Name", "myVar"));
-            inputs.add(new NodeInput("Value", "0"));
+            inputs.add(new NodeInput("Value", NodeInput.Kind.EXPRESSION, "0"));
         }
         else if(label.equals("Get Variable")) {
             inputs.add(new NodeInput("Variable Name", "myVar"));
         }
         else if(label.equals("Loop")) {
-            inputs.add(new NodeInput("Count", "10"));
+            inputs.add(new NodeInput("Count", NodeInput.Kind.INT, "10"));
         }
         else if(label.equals("On Start")) {
             value = "On Start";
@@ -108,21 +127,199 @@ public class Node {
         }
     }
 
-    public Vec2 getInputPoint() {
-        return new Vec2(x, y + height / 2);
+    //adds a link to target unless it already exists; returns false for duplicates and self links
+    public boolean connect(Node target) {
+        if(target == this || !target.sources.add(this)) return false;
+        connections.add(target);
+        return true;
+    }
+
+    public boolean disconnect(Node target) {
+        if(!target.sources.remove(this)) return false;
+        connections.remove(target, true);
+        return true;
+    }
+
+    public boolean isConnected(Node target) {
+        return target.sources.contains(this);
+    }
+
+    //removes every link into and out of this node, touching only the nodes on the other end
+    public void unlink() {
+        for(Node source : sources) {
+            source.connections.remove(this, true);
+        }
+        sources.clear();
+        for(int i = 0; i < connections.size; i++) {
+            connections.get(i).sources.remove(this);
+        }
+        connections.clear();
+    }
+
+    public float inputX() {
+        return x;
     }
 
-    public Vec2 getOutputPoint() {
-        return new Vec2(x + width, y + height / 2);
+    public float inputY() {
+        return y + height / 2;
+    }
+
+    public float outputX() {
+        return x + width;
+    }
+
+    public float outputY() {
+        return y + height / 2;
+    }
+
+    //the "[TYPE]" tag drawn on the canvas, rebuilt only when type changes
+    public String typeTag() {
+        if(tagSource != type) {
+            tagSource = type;
+            tag = type == null ? "" : "[" + type.toUpperCase() + "]";
+        }
+        return tag;
+    }
+
+    //value shortened for display on the canvas, rebuilt only when value changes
+    public String displayValue() {
+        if(displaySource != value) {
+            displaySource = value;
+            display = value.length() > 25 ? value.substring(0, 25) + "..." : value;
+        }
+        return display;
+    }
+
+    public String inputError() {
+        for(NodeInput input : inputs) {
+            if(input.error != null) return input.error;
+        }
+        return null;
     }
 
     public static class NodeInput {
+        public enum Kind {
+            STRING, INT, FLOAT, ENUM, UNIT, BLOCK, EXPRESSION, MASK
+        }
+
         public String label;
         public String value;
+        public Kind kind;
+        public String[] options;
+
+        //parsed form of value, refreshed by set()
+        public int intValue;
+        public float floatValue;
+        public UnlockableContent content;
+        public Expression expression;
+        //slot table the expression was last bound to by the compiler
+        public ScriptVariables variables;
+        //filled cells of a MASK input, see BlockFill.parseMask
+        public IntSeq cells;
+        public String error;
 
         public NodeInput(String label, String defaultValue) {
+            this(label, Kind.STRING, defaultValue);
+        }
+
+        public NodeInput(String label, Kind kind, String defaultValue) {
             this.label = label;
-            this.value = defaultValue;
+            this.kind = kind;
+            set(defaultValue);
+        }
+
+        public NodeInput(String label, String[] options, String defaultValue) {
+            this.label = label;
+            this.kind = Kind.ENUM;
+            this.options = options;
+            set(defaultValue);
+        }
+
+        //unchanged text keeps the parsed form, so a running script keeps its bound expression
+        public void set(String value) {
+            if(value != null && value.equals(this.value)) return;
+            this.value = value;
+            parse();
+        }
+
+        //binds the expression to a slot table and remembers it, so later edits are bound to the same table;
+        //returns the first unknown variable name or null
+        public String bind(ScriptVariables variables) {
+            this.variables = variables;
+            return expression == null ? null : expression.bind(variables);
+        }
+
+        public void parse() {
+            error = null;
+            content = null;
+            expression = null;
+            cells = null;
+            intValue = 0;
+            floatValue = 0f;
+
+            String text = value == null ? "" : value.trim();
+
+            switch(kind) {
+                case INT:
+                    try {
+                        intValue = Integer.parseInt(text);
+                        floatValue = intValue;
+                    } catch(NumberFormatException e) {
+                        error = label + ": not a whole number: " + value;
+                    }
+                    break;
+
+                case FLOAT:
+                    try {
+                        floatValue = Float.parseFloat(text);
+                        intValue = (int)floatValue;
+                    } catch(NumberFormatException e) {
+                        error = label + ": not a number: " + value;
+                    }
+                    break;
+
+                case ENUM:
+                    intValue = -1;
+                    for(int i = 0; i < options.length; i++) {
+                        if(options[i].equals(text)) {
+                            intValue = i;
+                            break;
+                        }
+                    }
+                    if(intValue == -1) {
+                        intValue = 0;
+                        error = label + ": unknown option: " + value;
+                    }
+                    break;
+
+                case UNIT:
+                    content = ContentCache.unit(text);
+                    if(content == null) error = "Unknown unit type: " + value;
+                    break;
+
+                case BLOCK:
+                    content = ContentCache.block(text);
+                    if(content == null) error = "Unknown block: " + value;
+                    break;
+
+                case EXPRESSION:
+                    try {
+                        expression = Expression.parse(text);
+                        //edited while compiled: bind right away so running plans keep the slot lookups
+                        if(variables != null) expression.bind(variables);
+                    } catch(IllegalArgumentException e) {
+                        error = label + ": " + e.getMessage();
+                    }
+                    break;
+
+                case MASK:
+                    //not trimmed, leading spaces are empty cells
+                    cells = BlockFill.parseMask(value == null ? "" : value);
+                    break;
+
+                default:
+                    break;
+            }
         }
     }
 }
\ No newline at end of file
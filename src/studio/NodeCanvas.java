@@ -3,7 +3,9 @@ package studio;
 import arc.*;
 import arc.graphics.*;
 import arc.graphics.g2d.*;
+import arc.graphics.gl.*;
 import arc.input.*;
+import arc.math.*;
 import arc.math.geom.*;
 import arc.scene.*;
 import arc.scene.event.*;
@@ -13,41 +15,121 @@ import mindustry.graphics.*;
 import mindustry.ui.*;
 
 public class NodeCanvas extends Element {
+    public static final float minZoom = 0.1f, maxZoom = 3f;
+    //level of detail, picked each frame from zoom and the thresholds in StudioMod
+    public static final int LOD_FULL = 0, LOD_SIMPLE = 1, LOD_CLUSTER = 2;
+    //screen size of the cells nodes are grouped by in the cluster tier
+    private static final float clusterCellSize = 48f;
+    //world distance between minor grid lines at normal zoom, and how many minor steps make a major one
+    private static final float gridSpacing = 50f;
+    private static final int gridMajor = 5;
+    //screen distance below which the grid switches to the next coarser spacing
+    private static final float gridMinSpacing = 16f;
+
     public Seq<Node> nodes = new Seq<>();
     public Vec2 offset = new Vec2(0, 0);
     public float zoom = 0.5f;
 
     public String mode = "move";
+    //bumped whenever nodes or connections change, used to invalidate compiled scripts
+    public int revision = 0;
 
     private Node dragNode = null;
     private Vec2 dragStart = new Vec2();
     private Vec2 panStart = new Vec2();
+    //reused by the input listeners so touch handling does not allocate
+    private final Vec2 worldTmp = new Vec2();
     private boolean panning = false;
 
+    //box selection; the band is kept in world space while it is dragged out
+    public final ObjectSet<Node> selection = new ObjectSet<>();
+    private boolean selecting = false;
+    private final Vec2 selectStart = new Vec2(), selectEnd = new Vec2();
+    private final Seq<Node> selectionQuery = new Seq<>();
+    //screen distance a band has to be dragged out before it replaces the selection
+    private static final float minSelectDrag = 12f;
+    //nodes moved by the current drag, and a counter bumped whenever selection or drag state changes
+    private final Seq<Node> liveNodes = new Seq<>();
+    private int stateRevision = 0;
+
     private Node connectStart = null;
 
     public Runnable onNodeEdit;
     public Node selectedNode = null;
 
+    //spatial index over node bounds; rebuilt lazily when revision moves past indexRevision
+    private final NodeGrid grid = new NodeGrid();
+    private int indexRevision = -1;
+    private final Seq<Node> visibleNodes = new Seq<>();
+    private final NodeClusters clusters = new NodeClusters();
+    private final Color typeColor = new Color();
+
+    //static layer cache: the scene is rendered into buffer and reused until one of the cached values changes
+    private FrameBuffer buffer;
+    private boolean cacheValid = false;
+    private int cachedState;
+    private int cachedRevision, cachedProfile;
+    private float cachedZoom, cachedOffsetX, cachedOffsetY;
+    private final Rect cachedBounds = new Rect();
+    private boolean cachedLabels;
+    private final float[] cachedSettings = new float[5];
+    //links from cached nodes into the dragged ones, drawn live with them
+    private final Seq<Node> skipSources = new Seq<>();
+    private final IntSeq skipIndices = new IntSeq();
+
+    public boolean showMinimap = true;
+    private final NodeMinimap minimap = new NodeMinimap();
+    private boolean minimapPanning = false;
+    private static final float minimapMargin = 20f;
+
+    //world area drawn this frame, padded so ports, outlines and labels at the edges are not cut off
+    private final Rect viewport = new Rect();
+
+    private Node hoverNode = null;
+    private String hoverText = "";
+    private Node hoverTextNode = null;
+    private int hoverTextCalls = -1;
+
     public NodeCanvas() {
         setFillParent(true);
 
         addListener(new InputListener() {
             @Override
             public boolean touchDown(InputEvent event, float x, float y, int pointer, KeyCode button) {
-                Vec2 worldPos = screenToWorld(x, y);
+                Vec2 worldPos = screenToWorld(x, y, worldTmp);
+
+                if(showMinimap && inMinimap(x, y)) {
+                    minimapPanning = true;
+                    jumpTo(x, y);
+                    return true;
+                }
 
                 if(Core.input.keyDown(KeyCode.mouseRight) || pointer == 1) {
+                    //a second finger turns the gesture into a pan, so the band started by the first one is dropped
+                    selecting = false;
                     panning = true;
                     panStart.set(x, y);
                     return true;
                 }
 
                 Node clickedNode = getNodeAt(worldPos.x, worldPos.y);
+                hoverNode = clickedNode;
 
                 if(mode.equals("move") && clickedNode != null) {
+                    //grabbing a selected node moves the whole selection, any other node drops it
+                    if(!selection.contains(clickedNode)) {
+                        clearSelection();
+                    }
                     dragNode = clickedNode;
                     dragStart.set(worldPos.x - clickedNode.x, worldPos.y - clickedNode.y);
+                    startDrag();
+                    return true;
+                }
+
+                if(mode.equals("move")) {
+                    selecting = true;
+                    selectStart.set(worldPos);
+                    selectEnd.set(worldPos);
                     return true;
                 }
 
@@ -63,8 +145,8 @@ public class NodeCanvas extends Element {
                     if(connectStart == null) {
                         connectStart = clickedNode;
                     } else {
-                        if(connectStart != clickedNode && !connectStart.connections.contains(clickedNode)) {
-                            connectStart.connections.add(clickedNode);
+                        if(connectStart.connect(clickedNode)) {
+                            changedIndexed();
                         }
                         connectStart = null;
                     }
@@ -74,9 +156,10 @@ public class NodeCanvas extends Element {
                 }
 
                 if(mode.equals("delete") && clickedNode != null) {
-                    nodes.remove(clickedNode);
-                    for(Node n : nodes) {
-                        n.connections.remove(clickedNode);
+                    if(selection.contains(clickedNode)) {
+                        deleteSelection();
+                    } else {
+                        deleteNode(clickedNode);
                     }
                     return true;
                 }
@@ -86,6 +169,11 @@ public class NodeCanvas extends Element {
 
             @Override
             public void touchDragged(InputEvent event, float x, float y, int pointer) {
+                if(minimapPanning) {
+                    jumpTo(x, y);
+                    return;
+                }
+
                 if(panning) {
                     offset.x += (x - panStart.x) / zoom;
                     offset.y += (y - panStart.y) / zoom;
@@ -93,157 +181,647 @@ public class NodeCanvas extends Element {
                     return;
                 }
 
+                if(selecting) {
+                    screenToWorld(x, y, selectEnd);
+                    return;
+                }
+
                 if(dragNode != null && mode.equals("move")) {
-                    Vec2 worldPos = screenToWorld(x, y);
-                    dragNode.x = worldPos.x - dragStart.x;
-                    dragNode.y = worldPos.y - dragStart.y;
+                    Vec2 worldPos = screenToWorld(x, y, worldTmp);
+                    float dx = worldPos.x - dragStart.x - dragNode.x, dy = worldPos.y - dragStart.y - dragNode.y;
+                    syncIndex();
+                    for(int i = 0; i < liveNodes.size; i++) {
+                        Node node = liveNodes.get(i);
+                        if(showMinimap) minimap.moved(node, node.x, node.y);
+                        node.x += dx;
+                        node.y += dy;
+                        grid.update(node);
+                    }
+                    if(!showMinimap) minimap.invalidate();
                 }
             }
 
+            @Override
+            public boolean mouseMoved(InputEvent event, float x, float y) {
+                if(ScriptProfiler.enabled) {
+                    hoverNode = getNodeAt(worldX(x), worldY(y));
+                }
+                return false;
+            }
+
             @Override
             public void touchUp(InputEvent event, float x, float y, int pointer, KeyCode button) {
-                dragNode = null;
+                if(selecting) {
+                    selecting = false;
+                    float bandWidth = Math.abs(selectEnd.x - selectStart.x), bandHeight = Math.abs(selectEnd.y - selectStart.y);
+                    //taps and small slips leave the selection alone
+                    if(Math.max(bandWidth, bandHeight) * zoom >= minSelectDrag) {
+                        select(Math.min(selectStart.x, selectEnd.x), Math.min(selectStart.y, selectEnd.y), bandWidth, bandHeight);
+                    }
+                }
+                if(dragNode != null) {
+                    dragNode = null;
+                    liveNodes.clear();
+                    stateRevision++;
+                }
                 panning = false;
+                minimapPanning = false;
             }
 
             @Override
             public boolean scrolled(InputEvent event, float x, float y, float amountX, float amountY) {
-                Vec2 worldPosBefore = screenToWorld(x, y);
+                float beforeX = worldX(x), beforeY = worldY(y);
 
-                zoom = arc.math.Mathf.clamp(zoom - amountY * 0.15f, 0.2f, 3f);
+                zoom = arc.math.Mathf.clamp(zoom - amountY * 0.15f, minZoom, maxZoom);
 
-                Vec2 worldPosAfter = screenToWorld(x, y);
-                offset.add(worldPosBefore).sub(worldPosAfter);
+                offset.add(beforeX - worldX(x), beforeY - worldY(y));
 
                 return true;
             }
         });
     }
 
-    private Node getNodeAt(float worldX, float worldY) {
-        for(int i = nodes.size - 1; i >= 0; i--) {
-            Node node = nodes.get(i);
-            float margin = 20f;
-            if(worldX >= node.x - margin && 
-               worldX <= node.x + node.width + margin &&
-               worldY >= node.y - margin && 
-               worldY <= node.y + node.height + margin) {
-                return node;
+    Node getNodeAt(float worldX, float worldY) {
+        syncIndex();
+        return grid.at(worldX, worldY);
+    }
+
+    //nodes overlapping a world rectangle, bottom to top; out is cleared first
+    public Seq<Node> getNodesIn(float worldX, float worldY, float worldWidth, float worldHeight, Seq<Node> out) {
+        syncIndex();
+        return grid.within(worldX, worldY, worldWidth, worldHeight, out);
+    }
+
+    //the nodes being dragged are drawn live on top of the cached layer
+    private void startDrag() {
+        liveNodes.clear();
+        if(selection.contains(dragNode)) {
+            for(Node node : selection) {
+                liveNodes.add(node);
             }
+        } else {
+            liveNodes.add(dragNode);
         }
-        return null;
+        stateRevision++;
     }
 
-    public Vec2 screenToWorld(float x, float y) {
-        return new Vec2(
-            (x - width/2f) / zoom - offset.x,
-            (y - height/2f) / zoom - offset.y
-        );
+    private boolean isLive(Node node) {
+        return dragNode != null && (node == dragNode || (selection.contains(dragNode) && selection.contains(node)));
     }
 
-    public Vec2 worldToScreen(float x, float y) {
-        return new Vec2(
-            (x + offset.x) * zoom + width/2f,
-            (y + offset.y) * zoom + height/2f
-        );
+    //replaces the selection with the nodes overlapping a world rectangle
+    public void select(float worldX, float worldY, float worldWidth, float worldHeight) {
+        selection.clear();
+        getNodesIn(worldX, worldY, worldWidth, worldHeight, selectionQuery);
+        for(int i = 0; i < selectionQuery.size; i++) {
+            selection.add(selectionQuery.get(i));
+        }
+        selectionQuery.clear();
+        stateRevision++;
+    }
+
+    public void clearSelection() {
+        if(selection.isEmpty()) return;
+        selection.clear();
+        stateRevision++;
+    }
+
+    public void deleteNode(Node node) {
+        syncIndex();
+        nodes.remove(node);
+        grid.remove(node);
+        node.unlink();
+        forget(node);
+        changedIndexed();
+    }
+
+    //removes every selected node; only the links touching them are visited
+    public void deleteSelection() {
+        if(selection.isEmpty()) return;
+
+        syncIndex();
+        for(Node node : selection) {
+            grid.remove(node);
+            node.unlink();
+            forget(node);
+        }
+        nodes.removeAll(selection::contains);
+        selection.clear();
+        stateRevision++;
+        changedIndexed();
+    }
+
+    //drops references the canvas keeps to a deleted node
+    private void forget(Node node) {
+        if(hoverNode == node) hoverNode = null;
+        if(connectStart == node) connectStart = null;
+        if(selectedNode == node) selectedNode = null;
+    }
+
+    //frees the cached scene and minimap framebuffers; they are created again on the next draw
+    public void dispose() {
+        if(buffer != null) {
+            buffer.dispose();
+            buffer = null;
+        }
+        cacheValid = false;
+        minimap.dispose();
+    }
+
+    //local position of the minimap's lower left corner
+    private float minimapX() {
+        return width - NodeMinimap.textureWidth - minimapMargin;
+    }
+
+    private float minimapY() {
+        return minimapMargin;
+    }
+
+    private boolean inMinimap(float localX, float localY) {
+        return localX >= minimapX() && localX <= minimapX() + NodeMinimap.textureWidth &&
+            localY >= minimapY() && localY <= minimapY() + NodeMinimap.textureHeight;
+    }
+
+    //centers the view on the world point under a local position inside the minimap
+    private void jumpTo(float localX, float localY) {
+        offset.set(-minimap.worldX(localX - minimapX()), -minimap.worldY(localY - minimapY()));
+    }
+
+    public Vec2 screenToWorld(float x, float y, Vec2 out) {
+        return out.set(worldX(x), worldY(y));
+    }
+
+    public Vec2 worldToScreen(float x, float y, Vec2 out) {
+        return out.set(screenX(x), screenY(y));
+    }
+
+    public float worldX(float screenX) {
+        return (screenX - width/2f) / zoom - offset.x;
+    }
+
+    public float worldY(float screenY) {
+        return (screenY - height/2f) / zoom - offset.y;
+    }
+
+    public float screenX(float worldX) {
+        return (worldX + offset.x) * zoom + width/2f;
+    }
+
+    public float screenY(float worldY) {
+        return (worldY + offset.y) * zoom + height/2f;
     }
 
     public void addNode(String type, String label, Color color) {
         Node node = new Node(type, label, -offset.x, -offset.y, color);
+        syncIndex();
         nodes.add(node);
+        grid.add(node);
+        changedIndexed();
     }
 
-    @Override
-    public void draw() {
-        validate();
+    public void changed() {
+        revision++;
+    }
 
-        Draw.color(0.15f, 0.15f, 0.2f, 1f);
-        Fill.rect(x + width/2f, y + height/2f, width, height);
+    //for edits that have already been applied to the spatial index
+    private void changedIndexed() {
+        boolean synced = indexRevision == revision;
+        revision++;
+        if(synced) indexRevision = revision;
+    }
+
+    //nodes may be replaced or edited from outside the canvas, which only bumps revision
+    private void syncIndex() {
+        if(indexRevision != revision) {
+            grid.rebuild(nodes);
+            indexRevision = revision;
+
+            //nodes can be removed or replaced outside the canvas, so drop any that are gone
+            ObjectSet.ObjectSetIterator<Node> it = selection.iterator();
+            while(it.hasNext()) {
+                if(!grid.contains(it.next())) {
+                    it.remove();
+                    stateRevision++;
+                }
+            }
+        }
+    }
+
+    private void updateViewport() {
+        float margin = 40f / zoom;
+        viewport.set(
+            -width/2f / zoom - offset.x - margin,
+            -height/2f / zoom - offset.y - margin,
+            width / zoom + margin * 2f,
+            height / zoom + margin * 2f
+        );
+    }
+
+    boolean isVisible(EdgeCurve curve) {
+        return curve.minX <= viewport.x + viewport.width && curve.maxX >= viewport.x &&
+            curve.minY <= viewport.y + viewport.height && curve.maxY >= viewport.y;
+    }
 
+    //cached curve for the connection at index of node, brought up to date with both ends
+    EdgeCurve curve(Node node, int index) {
+        if(node.curves == null) node.curves = new Seq<>();
+        while(node.curves.size <= index) node.curves.add(new EdgeCurve());
+
+        EdgeCurve curve = node.curves.get(index);
+        curve.update(node, node.connections.get(index));
+        return curve;
+    }
+
+    public int lod() {
+        if(zoom < StudioMod.lodClusterZoom) return LOD_CLUSTER;
+        if(zoom < StudioMod.lodSimpleZoom) return LOD_SIMPLE;
+        return LOD_FULL;
+    }
+
+    //updates the viewport and returns the nodes inside it, bottom to top
+    Seq<Node> cull() {
+        updateViewport();
+        return getNodesIn(viewport.x, viewport.y, viewport.width, viewport.height, visibleNodes);
+    }
+
+    //draws node text one slot at a time, so the font scale is set three times per frame rather than per node
+    private void drawAllText() {
+        Font font = Fonts.outline;
+
+        float labelScale = labelTextScale();
+        font.getData().setScale(labelScale);
+        for(int i = 0; i < visibleNodes.size; i++) {
+            Node node = visibleNodes.get(i);
+            if(!isLive(node)) drawLabel(font, node, labelScale);
+        }
+
+        float infoScale = infoTextScale();
+        font.getData().setScale(infoScale);
+        for(int i = 0; i < visibleNodes.size; i++) {
+            Node node = visibleNodes.get(i);
+            if(!isLive(node)) drawValue(font, node, infoScale);
+        }
+
+        float typeScale = typeTextScale();
+        font.getData().setScale(typeScale);
+        for(int i = 0; i < visibleNodes.size; i++) {
+            Node node = visibleNodes.get(i);
+            if(!isLive(node)) drawType(font, node, typeScale);
+        }
+    }
+
+    private void drawNodeText(Node node) {
+        Font font = Fonts.outline;
+        float labelScale = labelTextScale(), infoScale = infoTextScale(), typeScale = typeTextScale();
+
+        font.getData().setScale(labelScale);
+        drawLabel(font, node, labelScale);
+        font.getData().setScale(infoScale);
+        drawValue(font, node, infoScale);
+        font.getData().setScale(typeScale);
+        drawType(font, node, typeScale);
+    }
+
+    private float labelTextScale() {
+        return NodeText.bucket(Math.min(zoom * 1.2f * StudioMod.labelScale, 1.5f));
+    }
+
+    private float infoTextScale() {
+        return NodeText.bucket(Math.min(zoom * 1.0f * StudioMod.infoScale, 1.3f));
+    }
+
+    private float typeTextScale() {
+        return NodeText.bucket(Math.min(zoom * 0.7f * StudioMod.typeScale, 1.0f));
+    }
+
+    private void drawLabel(Font font, Node node, float scale) {
+        Draw.color(Color.white);
+        GlyphLayout layout = text(node).get(font, NodeText.SLOT_LABEL, node.label, scale, Color.white);
+        font.draw(layout, screenX(node.x + 20f), screenY(node.y + node.height - 30f));
+    }
+
+    private void drawValue(Font font, Node node, float scale) {
+        if(node.value.isEmpty()) return;
+
+        Draw.color(Color.lightGray);
+        GlyphLayout layout = text(node).get(font, NodeText.SLOT_VALUE, node.displayValue(), scale, Color.lightGray);
+        font.draw(layout, screenX(node.x + 20f), screenY(node.y + node.height/2f));
+    }
+
+    private void drawType(Font font, Node node, float scale) {
+        typeColor.set(node.color.r * 0.8f, node.color.g * 0.8f, node.color.b * 0.8f, 1f);
+        Draw.color(typeColor);
+        GlyphLayout layout = text(node).get(font, NodeText.SLOT_TYPE, node.typeTag(), scale, typeColor);
+        font.draw(layout, screenX(node.x + 20f), screenY(node.y + 30f));
+    }
+
+    private NodeText text(Node node) {
+        if(node.text == null) node.text = new NodeText();
+        return node.text;
+    }
+
+    //grid lines covering only the visible world range; the spacing grows by gridMajor whenever lines would get
+    //closer than gridMinSpacing pixels, and every gridMajor-th line is drawn stronger
+    private void drawGrid() {
+        float spacing = gridSpacing;
+        while(spacing * zoom < gridMinSpacing) {
+            spacing *= gridMajor;
+        }
+
+        int firstX = (int)Math.floor(worldX(x) / spacing), lastX = (int)Math.ceil(worldX(x + width) / spacing);
+        int firstY = (int)Math.floor(worldY(y) / spacing), lastY = (int)Math.ceil(worldY(y + height) / spacing);
+
+        Draw.color(0.2f, 0.2f, 0.25f, 1f);
+        Lines.stroke(1f);
+        drawGridLines(spacing, firstX, lastX, firstY, lastY, false);
+
+        Draw.color(0.3f, 0.3f, 0.36f, 1f);
         Lines.stroke(2f);
-        Draw.color(0.25f, 0.25f, 0.3f, 1f);
-        for(float gx = -2000f; gx < 2000f; gx += 50f) {
-            Vec2 start = worldToScreen(gx, -2000f);
-            if(start.x >= x && start.x <= x + width) {
-                Lines.line(start.x, y, start.x, y + height);
+        drawGridLines(spacing, firstX, lastX, firstY, lastY, true);
+    }
+
+    private void drawGridLines(float spacing, int firstX, int lastX, int firstY, int lastY, boolean major) {
+        for(int i = firstX; i <= lastX; i++) {
+            if((i % gridMajor == 0) != major) continue;
+            float sx = screenX(i * spacing);
+            if(sx >= x && sx <= x + width) {
+                Lines.line(sx, y, sx, y + height);
             }
         }
-        for(float gy = -2000f; gy < 2000f; gy += 50f) {
-            Vec2 start = worldToScreen(-2000f, gy);
-            if(start.y >= y && start.y <= y + height) {
-                Lines.line(x, start.y, x + width, start.y);
+        for(int i = firstY; i <= lastY; i++) {
+            if((i % gridMajor == 0) != major) continue;
+            float sy = screenY(i * spacing);
+            if(sy >= y && sy <= y + height) {
+                Lines.line(x, sy, x + width, sy);
             }
         }
+    }
+
+    private void drawEdge(Node node, int index) {
+        EdgeCurve curve = curve(node, index);
+        if(!isVisible(curve)) return;
+
+        float[] points = curve.points;
+        float lastX = screenX(points[0]), lastY = screenY(points[1]);
+        for(int i = 2; i < points.length; i += 2) {
+            float nextX = screenX(points[i]), nextY = screenY(points[i + 1]);
+            Lines.line(lastX, lastY, nextX, nextY);
+            lastX = nextX;
+            lastY = nextY;
+        }
+    }
+
+    private float edgeStroke() {
+        return Math.max(1.5f, 12f * zoom);
+    }
 
-        for(Node node : nodes) {
-            for(Node target : node.connections) {
-                Vec2 start = worldToScreen(node.getOutputPoint().x, node.getOutputPoint().y);
-                Vec2 end = worldToScreen(target.getInputPoint().x, target.getInputPoint().y);
+    private void drawNode(Node node, int lod) {
+        float screenX = screenX(node.x);
+        float screenY = screenY(node.y);
+        float screenWidth = node.width * zoom;
+        float screenHeight = node.height * zoom;
 
-                Draw.color(Color.white);
-                Lines.stroke(6f);
-                Lines.line(start.x, start.y, end.x, end.y);
+        //text and ports are unreadable this far out, draw a flat box
+        if(lod != LOD_FULL) {
+            Draw.color(node.color);
+            Fill.rect(screenX + screenWidth/2f, screenY + screenHeight/2f, screenWidth, screenHeight);
+            if(ScriptProfiler.enabled && node.profileCalls > 0) {
+                Draw.color(1f, 0.15f, 0.1f, 0.15f + 0.55f * ScriptProfiler.heat(node));
+                Fill.rect(screenX + screenWidth/2f, screenY + screenHeight/2f, screenWidth, screenHeight);
             }
+            if(selection.contains(node)) {
+                Draw.color(Color.yellow);
+                Lines.stroke(2f);
+                Lines.rect(screenX, screenY, screenWidth, screenHeight);
+            }
+            return;
         }
 
-        float savedScale = Fonts.outline.getData().scaleX;
+        Draw.color(node.color.r * 0.3f, node.color.g * 0.3f, node.color.b * 0.3f, 0.8f);
+        Fill.rect(screenX + screenWidth/2f, screenY + screenHeight/2f, screenWidth, screenHeight);
+
+        Draw.color(selection.contains(node) ? Color.yellow : node.color);
+        Lines.stroke(8f);
+        Lines.rect(screenX, screenY, screenWidth, screenHeight);
 
-        for(Node node : nodes) {
-            Vec2 screenPos = worldToScreen(node.x, node.y);
-            float screenWidth = node.width * zoom;
-            float screenHeight = node.height * zoom;
+        if(ScriptProfiler.enabled && node.profileCalls > 0) {
+            Draw.color(1f, 0.15f, 0.1f, 0.15f + 0.55f * ScriptProfiler.heat(node));
+            Fill.rect(screenX + screenWidth/2f, screenY + screenHeight/2f, screenWidth, screenHeight);
+        }
 
-            Draw.color(node.color.r * 0.3f, node.color.g * 0.3f, node.color.b * 0.3f, 0.8f);
-            Fill.rect(screenPos.x + screenWidth/2f, screenPos.y + screenHeight/2f, screenWidth, screenHeight);
+        float portRadius = Math.min(18f, 36f * zoom);
+        float inputX = screenX(node.inputX()), inputY = screenY(node.inputY());
+        Draw.color(Color.green);
+        Fill.circle(inputX, inputY, portRadius);
+        Draw.color(Color.darkGray);
+        Lines.stroke(3f);
+        Lines.circle(inputX, inputY, portRadius);
+
+        float outputX = screenX(node.outputX()), outputY = screenY(node.outputY());
+        Draw.color(Color.red);
+        Fill.circle(outputX, outputY, portRadius);
+        Draw.color(Color.darkGray);
+        Lines.stroke(3f);
+        Lines.circle(outputX, outputY, portRadius);
+    }
 
-            Draw.color(node.color);
-            Lines.stroke(8f);
-            Lines.rect(screenPos.x, screenPos.y, screenWidth, screenHeight);
+    //everything except the live overlays; dragged nodes are left out along with their links, and the links into them
+    //from nodes that stay put are collected
+    private void drawScene() {
+        cull();
+        skipSources.clear();
+        skipIndices.clear();
 
-            if(StudioMod.showLabels) {
+        Draw.color(0.15f, 0.15f, 0.2f, 1f);
+        Fill.rect(x + width/2f, y + height/2f, width, height);
+
+        drawGrid();
+
+        //every edge goes out in this one pass with a single color and stroke
+        Draw.color(Color.white);
+        Lines.stroke(edgeStroke());
+        for(int i = 0; i < nodes.size; i++) {
+            Node node = nodes.get(i);
+            if(isLive(node)) continue;
+
+            for(int j = 0; j < node.connections.size; j++) {
+                if(isLive(node.connections.get(j))) {
+                    skipSources.add(node);
+                    skipIndices.add(j);
+                    continue;
+                }
+                drawEdge(node, j);
+            }
+            if(node.curves != null && node.curves.size > node.connections.size) {
+                node.curves.truncate(node.connections.size);
+            }
+        }
+
+        int lod = lod();
+
+        if(lod == LOD_CLUSTER) {
+            clusters.build(visibleNodes, clusterCellSize / zoom);
+            for(int slot = 0; slot < clusters.size(); slot++) {
+                if(!clusters.isBlock(slot)) continue;
+
+                float blockX = screenX(clusters.minX(slot)), blockY = screenY(clusters.minY(slot));
+                float blockWidth = (clusters.maxX(slot) - clusters.minX(slot)) * zoom;
+                float blockHeight = (clusters.maxY(slot) - clusters.minY(slot)) * zoom;
+                Draw.color(clusters.color(slot, 0), clusters.color(slot, 1), clusters.color(slot, 2), 0.9f);
+                Fill.rect(blockX + blockWidth/2f, blockY + blockHeight/2f, blockWidth, blockHeight);
                 Draw.color(Color.white);
-                float labelDrawScale = Math.min(zoom * 1.2f * StudioMod.labelScale, 1.5f);
-                Fonts.outline.getData().setScale(labelDrawScale);
-                Fonts.outline.draw(node.label, screenPos.x + 20f * zoom, screenPos.y + screenHeight - 30f * zoom);
+                Lines.stroke(2f);
+                Lines.rect(blockX, blockY, blockWidth, blockHeight);
+            }
+        }
+
+        for(int i = 0; i < visibleNodes.size; i++) {
+            Node node = visibleNodes.get(i);
+            if(isLive(node) || (lod == LOD_CLUSTER && clusters.isClustered(node))) continue;
+
+            drawNode(node, lod);
+        }
+
+        if(lod == LOD_FULL && StudioMod.showLabels) {
+            drawAllText();
+        }
+    }
+
+    //true when something drawn into the cached layer has changed since it was last rendered
+    private boolean sceneChanged() {
+        boolean changed = !cacheValid || cachedState != stateRevision || cachedRevision != revision ||
+            cachedProfile != ScriptProfiler.revision || cachedZoom != zoom ||
+            cachedOffsetX != offset.x || cachedOffsetY != offset.y ||
+            cachedBounds.x != x || cachedBounds.y != y || cachedBounds.width != width || cachedBounds.height != height ||
+            cachedLabels != StudioMod.showLabels;
+
+        float[] settings = cachedSettings;
+        changed |= settings[0] != StudioMod.labelScale || settings[1] != StudioMod.infoScale || settings[2] != StudioMod.typeScale ||
+            settings[3] != StudioMod.lodSimpleZoom || settings[4] != StudioMod.lodClusterZoom;
+
+        if(changed) {
+            cacheValid = true;
+            cachedState = stateRevision;
+            cachedRevision = revision;
+            cachedProfile = ScriptProfiler.revision;
+            cachedZoom = zoom;
+            cachedOffsetX = offset.x;
+            cachedOffsetY = offset.y;
+            cachedBounds.set(x, y, width, height);
+            cachedLabels = StudioMod.showLabels;
+            settings[0] = StudioMod.labelScale;
+            settings[1] = StudioMod.infoScale;
+            settings[2] = StudioMod.typeScale;
+            settings[3] = StudioMod.lodSimpleZoom;
+            settings[4] = StudioMod.lodClusterZoom;
+        }
+        return changed;
+    }
+
+    private void drawMinimap() {
+        minimap.update(this);
+
+        float mapX = x + minimapX(), mapY = y + minimapY();
+        float mapWidth = NodeMinimap.textureWidth, mapHeight = NodeMinimap.textureHeight;
+
+        Draw.color();
+        Draw.rect(Draw.wrap(minimap.texture()), mapX + mapWidth / 2f, mapY + mapHeight / 2f, mapWidth, -mapHeight);
+
+        Draw.color(Color.gray);
+        Lines.stroke(2f);
+        Lines.rect(mapX, mapY, mapWidth, mapHeight);
+
+        //current view, clipped to the minimap
+        float viewX1 = Mathf.clamp(minimap.textureX(worldX(x)), 0f, mapWidth), viewX2 = Mathf.clamp(minimap.textureX(worldX(x + width)), 0f, mapWidth);
+        float viewY1 = Mathf.clamp(minimap.textureY(worldY(y)), 0f, mapHeight), viewY2 = Mathf.clamp(minimap.textureY(worldY(y + height)), 0f, mapHeight);
+        Draw.color(Color.white);
+        Lines.rect(mapX + viewX1, mapY + viewY1, viewX2 - viewX1, viewY2 - viewY1);
+    }
+
+    @Override
+    public void draw() {
+        validate();
+
+        float savedScale = Fonts.outline.getData().scaleX;
+        int screenWidth = Core.graphics.getWidth(), screenHeight = Core.graphics.getHeight();
+
+        if(buffer == null) {
+            buffer = new FrameBuffer(screenWidth, screenHeight);
+            cacheValid = false;
+        } else if(buffer.getWidth() != screenWidth || buffer.getHeight() != screenHeight) {
+            buffer.resize(screenWidth, screenHeight);
+            cacheValid = false;
+        }
+
+        //the cached layer is drawn with the scene's projection, so it lines up pixel for pixel when blitted back
+        if(sceneChanged()) {
+            Draw.flush();
+            buffer.begin(Color.clear);
+            drawScene();
+            Draw.flush();
+            buffer.end();
+        }
 
-                if(!node.value.isEmpty()) {
-                    Draw.color(Color.lightGray);
-                    float infoDrawScale = Math.min(zoom * 1.0f * StudioMod.infoScale, 1.3f);
-                    Fonts.outline.getData().setScale(infoDrawScale);
-                    String displayValue = node.value.length() > 25 ? node.value.substring(0, 25) + "..." : node.value;
-                    Fonts.outline.draw(displayValue, screenPos.x + 20f * zoom, screenPos.y + screenHeight/2f);
+        Draw.color();
+        Draw.rect(Draw.wrap(buffer.getTexture()), screenWidth / 2f, screenHeight / 2f, screenWidth, -screenHeight);
+
+        if(dragNode != null) {
+            Draw.color(Color.white);
+            Lines.stroke(edgeStroke());
+            for(int i = 0; i < skipSources.size; i++) {
+                drawEdge(skipSources.get(i), skipIndices.get(i));
+            }
+            for(int i = 0; i < liveNodes.size; i++) {
+                Node node = liveNodes.get(i);
+                for(int j = 0; j < node.connections.size; j++) {
+                    drawEdge(node, j);
                 }
+            }
 
-                Draw.color(node.color.r * 0.8f, node.color.g * 0.8f, node.color.b * 0.8f, 1f);
-                float typeDrawScale = Math.min(zoom * 0.7f * StudioMod.typeScale, 1.0f);
-                Fonts.outline.getData().setScale(typeDrawScale);
-                Fonts.outline.draw("[" + node.type.toUpperCase() + "]", screenPos.x + 20f * zoom, screenPos.y + 30f * zoom);
+            int lod = lod();
+            for(int i = 0; i < liveNodes.size; i++) {
+                drawNode(liveNodes.get(i), lod);
             }
+            if(lod == LOD_FULL && StudioMod.showLabels) {
+                for(int i = 0; i < liveNodes.size; i++) {
+                    drawNodeText(liveNodes.get(i));
+                }
+            }
+        }
 
-            Vec2 inputScreen = worldToScreen(node.getInputPoint().x, node.getInputPoint().y);
-            Draw.color(Color.green);
-            Fill.circle(inputScreen.x, inputScreen.y, 18f);
-            Draw.color(Color.darkGray);
-            Lines.stroke(3f);
-            Lines.circle(inputScreen.x, inputScreen.y, 18f);
+        if(selecting) {
+            float bandX = screenX(Math.min(selectStart.x, selectEnd.x)), bandY = screenY(Math.min(selectStart.y, selectEnd.y));
+            float bandWidth = Math.abs(selectEnd.x - selectStart.x) * zoom, bandHeight = Math.abs(selectEnd.y - selectStart.y) * zoom;
+            Draw.color(1f, 1f, 0f, 0.15f);
+            Fill.rect(bandX + bandWidth/2f, bandY + bandHeight/2f, bandWidth, bandHeight);
+            Draw.color(Color.yellow);
+            Lines.stroke(2f);
+            Lines.rect(bandX, bandY, bandWidth, bandHeight);
+        }
 
-            Vec2 outputScreen = worldToScreen(node.getOutputPoint().x, node.getOutputPoint().y);
-            Draw.color(Color.red);
-            Fill.circle(outputScreen.x, outputScreen.y, 18f);
-            Draw.color(Color.darkGray);
-            Lines.stroke(3f);
-            Lines.circle(outputScreen.x, outputScreen.y, 18f);
+        if(ScriptProfiler.enabled && hoverNode != null && hoverNode.profileCalls > 0) {
+            if(hoverTextNode != hoverNode || hoverTextCalls != hoverNode.profileCalls) {
+                hoverText = ScriptProfiler.describe(hoverNode);
+                hoverTextNode = hoverNode;
+                hoverTextCalls = hoverNode.profileCalls;
+            }
+            Draw.color(Color.white);
+            Fonts.outline.getData().setScale(1f);
+            Fonts.outline.draw(hoverText, screenX(hoverNode.x), screenY(hoverNode.y + hoverNode.height) + 30f);
         }
 
         Fonts.outline.getData().setScale(savedScale);
 
         if(connectStart != null) {
-            Vec2 start = worldToScreen(connectStart.getOutputPoint().x, connectStart.getOutputPoint().y);
             Draw.color(Color.yellow);
             Lines.stroke(6f);
-            Lines.circle(start.x, start.y, 30f);
+            Lines.circle(screenX(connectStart.outputX()), screenY(connectStart.outputY()), 30f);
+        }
+
+        if(showMinimap) {
+            drawMinimap();
         }
 
         Draw.reset();
     }
-}
\ No newline at end of file
+}
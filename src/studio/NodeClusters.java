@@ -0,0 +1,103 @@
+package studio;
+
+import arc.math.geom.*;
+import arc.struct.*;
+
+import java.util.*;
+
+//buckets nodes by the cell their centre falls in; cells holding enough nodes are drawn as one block when zoomed far out.
+//storage is reused between frames
+public class NodeClusters {
+    //nodes a cell needs before it collapses into a block
+    public static final int minNodes = 3;
+
+    private static final int stride = 7;
+
+    private final IntIntMap slots = new IntIntMap();
+    private int[] counts = new int[16];
+    //per slot: min x, min y, max x, max y and summed r, g, b
+    private float[] data = new float[16 * stride];
+    private int size = 0;
+    private float cellSize = 1f;
+
+    public void build(Seq<Node> nodes, float cellSize) {
+        this.cellSize = cellSize;
+        slots.clear();
+        size = 0;
+
+        for(int i = 0; i < nodes.size; i++) {
+            Node node = nodes.get(i);
+            int key = key(node);
+            int slot = slots.get(key, -1);
+
+            if(slot == -1) {
+                slot = size++;
+                if(slot == counts.length) {
+                    counts = Arrays.copyOf(counts, slot * 2);
+                    data = Arrays.copyOf(data, slot * 2 * stride);
+                }
+                slots.put(key, slot);
+                counts[slot] = 0;
+                int o = slot * stride;
+                data[o] = node.x;
+                data[o + 1] = node.y;
+                data[o + 2] = node.x + node.width;
+                data[o + 3] = node.y + node.height;
+                data[o + 4] = data[o + 5] = data[o + 6] = 0f;
+            }
+
+            int o = slot * stride;
+            counts[slot]++;
+            data[o] = Math.min(data[o], node.x);
+            data[o + 1] = Math.min(data[o + 1], node.y);
+            data[o + 2] = Math.max(data[o + 2], node.x + node.width);
+            data[o + 3] = Math.max(data[o + 3], node.y + node.height);
+            data[o + 4] += node.color.r;
+            data[o + 5] += node.color.g;
+            data[o + 6] += node.color.b;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isBlock(int slot) {
+        return counts[slot] >= minNodes;
+    }
+
+    //true when the node was folded into a block by the last build
+    public boolean isClustered(Node node) {
+        int slot = slots.get(key(node), -1);
+        return slot != -1 && isBlock(slot);
+    }
+
+    public int count(int slot) {
+        return counts[slot];
+    }
+
+    public float minX(int slot) {
+        return data[slot * stride];
+    }
+
+    public float minY(int slot) {
+        return data[slot * stride + 1];
+    }
+
+    public float maxX(int slot) {
+        return data[slot * stride + 2];
+    }
+
+    public float maxY(int slot) {
+        return data[slot * stride + 3];
+    }
+
+    //average color channel 0 = r, 1 = g, 2 = b
+    public float color(int slot, int channel) {
+        return data[slot * stride + 4 + channel] / counts[slot];
+    }
+
+    private int key(Node node) {
+        return Point2.pack((int)Math.floor((node.x + node.width / 2f) / cellSize), (int)Math.floor((node.y + node.height / 2f) / cellSize));
+    }
+}
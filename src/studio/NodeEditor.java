@@ -15,6 +15,9 @@ import mindustry.ui.dialogs.*;
 public class NodeEditor extends BaseDialog {
     public NodeCanvas canvas;
     private String currentScriptName = "Untitled";
+    private ScriptPlan[] compiledPlans;
+    private ScriptPlan[] runningPlans;
+    private int compiledRevision = -1;
     private Label statusLabel;
     public String editorMode = "game";
 
@@ -22,6 +25,8 @@ public class NodeEditor extends BaseDialog {
         super("Studio - Node Editor");
         canvas = new NodeCanvas();
         canvas.onNodeEdit = () -> showEditDialog(canvas.selectedNode);
+        //the canvas holds a screen-sized framebuffer, only keep it while the editor is open
+        hidden(canvas::dispose);
         buildUI();
     }
 
@@ -40,11 +45,25 @@ public class NodeEditor extends BaseDialog {
         buttonTable.button("Mode", Icon.menu, this::showModeSelector);
         buttonTable.button("Clear", Icon.trash, () -> {
             canvas.nodes.clear();
+            canvas.changed();
             Vars.ui.showInfoFade("Canvas cleared!");
         });
         buttonTable.button("Save", Icon.save, this::saveScript);
         buttonTable.button("Load", Icon.download, this::showLoadDialog);
         buttonTable.button("Run", Icon.play, this::runScript);
+        buttonTable.button("Stop", Icon.cancel, () -> {
+            StudioMod.events.unload(this);
+            runningPlans = null;
+            StudioMod.runtime.clear();
+            statusLabel.setText("Scripts stopped");
+        });
+        buttonTable.button("Vars", Icon.list, this::showVariableInspector);
+        buttonTable.button("Profile", Icon.info, () -> {
+            ScriptProfiler.enabled = !ScriptProfiler.enabled;
+            ScriptProfiler.reset(canvas.nodes);
+            statusLabel.setText(ScriptProfiler.enabled ? "Profiling on - hover a node for details" : "Profiling off");
+        });
+        buttonTable.button("Trace", Icon.book, this::showTrace);
         buttonTable.button("Move", Icon.move, () -> {
             canvas.mode = "move";
             updateStatusLabel();
@@ -62,8 +81,9 @@ public class NodeEditor extends BaseDialog {
             updateStatusLabel();
         });
         buttonTable.button("Add", Icon.add, this::showNodeBrowser);
-        buttonTable.button("Z-", Icon.zoom, () -> canvas.zoom = arc.math.Mathf.clamp(canvas.zoom - 0.2f, 0.2f, 3f));
-        buttonTable.button("Z+", Icon.zoom, () -> canvas.zoom = arc.math.Mathf.clamp(canvas.zoom + 0.2f, 0.2f, 3f));
+        buttonTable.button("Map", Icon.map, () -> canvas.showMinimap = !canvas.showMinimap);
+        buttonTable.button("Z-", Icon.zoom, () -> canvas.zoom = arc.math.Mathf.clamp(canvas.zoom - 0.2f, NodeCanvas.minZoom, NodeCanvas.maxZoom));
+        buttonTable.button("Z+", Icon.zoom, () -> canvas.zoom = arc.math.Mathf.clamp(canvas.zoom + 0.2f, NodeCanvas.minZoom, NodeCanvas.maxZoom));
 
         ScrollPane scrollPane = new ScrollPane(buttonTable);
         scrollPane.setScrollingDisabled(false, true);
@@ -88,6 +108,7 @@ public class NodeEditor extends BaseDialog {
         dialog.cont.button("[lime]GAME SCRIPTS\n[lightgray]Create gameplay features", Icon.edit, () -> {
             editorMode = "game";
             canvas.nodes.clear();
+            canvas.changed();
             updateStatusLabel();
             Vars.ui.showInfoFade("Switched to Game Scripts mode");
             dialog.hide();
@@ -95,6 +116,7 @@ public class NodeEditor extends BaseDialog {
         dialog.cont.button("[cyan]MOD CREATOR\n[lightgray]Build custom mods", Icon.box, () -> {
             editorMode = "mod";
             canvas.nodes.clear();
+            canvas.changed();
             updateStatusLabel();
             Vars.ui.showInfoFade("Switched to Mod Creator mode");
             dialog.hide();
@@ -153,36 +175,27 @@ public class NodeEditor extends BaseDialog {
             for(int i = 0; i < node.inputs.size; i++) {
                 Node.NodeInput input = node.inputs.get(i);
 
-                if(node.label.equals("Spawn Unit") && input.label.equals("Spawn Location")) {
+                if(input.kind == Node.NodeInput.Kind.ENUM) {
                     Label label = new Label(input.label + ":");
                     label.setFontScale(1.2f);
                     dialog.cont.add(label).left().row();
 
                     ButtonGroup<TextButton> group = new ButtonGroup<>();
-                    Table locTable = new Table();
-
-                    TextButton playerBtn = new TextButton("At Player", Styles.togglet);
-                    TextButton coreBtn = new TextButton("At Core", Styles.togglet);
-                    TextButton coordBtn = new TextButton("At Coordinates", Styles.togglet);
-
-                    group.add(playerBtn, coreBtn, coordBtn);
-
-                    if(input.value.equals("At Player")) playerBtn.setChecked(true);
-                    else if(input.value.equals("At Core")) coreBtn.setChecked(true);
-                    else coordBtn.setChecked(true);
-
-                    playerBtn.clicked(() -> input.value = "At Player");
-                    coreBtn.clicked(() -> input.value = "At Core");
-                    coordBtn.clicked(() -> input.value = "At Coordinates");
-
-                    locTable.add(playerBtn).width(180f).height(60f);
-                    locTable.add(coreBtn).width(180f).height(60f);
-                    locTable.add(coordBtn).width(220f).height(60f);
+                    Table optionTable = new Table();
+
+                    for(String option : input.options) {
+                        TextButton optionBtn = new TextButton(option, Styles.togglet);
+                        group.add(optionBtn);
+                        if(input.value.equals(option)) optionBtn.setChecked(true);
+                        optionBtn.clicked(() -> {
+                            input.set(option);
+                            node.value = buildNodeValue(node);
+                            canvas.changed();
+                        });
+                        optionTable.add(optionBtn).width(Math.max(180f, option.length() * 16f)).height(60f);
+                    }
 
-                    dialog.cont.add(locTable).row();
-                }
-                else if(node.label.equals("Spawn Unit") && (input.label.equals("X Coordinate") || input.label.equals("Y Coordinate"))) {
-                    continue;
+                    dialog.cont.add(optionTable).row();
                 }
                 else {
                     Label label = new Label(input.label + ":");
@@ -192,9 +205,15 @@ public class NodeEditor extends BaseDialog {
                     field.setStyle(new TextField.TextFieldStyle(field.getStyle()));
                     field.getStyle().font.getData().setScale(1.2f);
                     dialog.cont.add(field).fillX().height(80f).row();
+
+                    if(input.kind != Node.NodeInput.Kind.STRING && input.kind != Node.NodeInput.Kind.MASK) {
+                        dialog.cont.label(() -> input.error == null ? "" : "[scarlet]" + input.error).left().height(40f).row();
+                    }
+
                     field.changed(() -> {
-                        input.value = field.getText();
+                        input.set(field.getText());
                         node.value = buildNodeValue(node);
+                        canvas.changed();
                     });
                 }
             }
@@ -224,47 +243,12 @@ public class NodeEditor extends BaseDialog {
         dialog.buttons.button("SAVE", () -> {
             currentScriptName = nameField.getText();
             try {
-                StringBuilder json = new StringBuilder();
-                json.append("[\n");
-
-                for(int i = 0; i < canvas.nodes.size; i++) {
-                    Node node = canvas.nodes.get(i);
-                    json.append("  {\n");
-                    json.append("    \"id\": \"").append(node.id).append("\",\n");
-                    json.append("    \"type\": \"").append(node.type).append("\",\n");
-                    json.append("    \"label\": \"").append(node.label).append("\",\n");
-                    json.append("    \"x\": ").append(node.x).append(",\n");
-                    json.append("    \"y\": ").append(node.y).append(",\n");
-                    json.append("    \"value\": \"").append(node.value.replace("\"", "\\\"")).append("\",\n");
-                    json.append("    \"color\": \"").append(node.color.toString()).append("\",\n");
-
-                    json.append("    \"inputValues\": [");
-                    for(int j = 0; j < node.inputs.size; j++) {
-                        json.append("\"").append(node.inputs.get(j).value.replace("\"", "\\\"")).append("\"");
-                        if(j < node.inputs.size - 1) json.append(", ");
-                    }
-                    json.append("],\n");
-
-                    json.append("    \"connectionIds\": [");
-                    for(int j = 0; j < node.connections.size; j++) {
-                        json.append("\"").append(node.connections.get(j).id).append("\"");
-                        if(j < node.connections.size - 1) json.append(", ");
-                    }
-                    json.append("]\n");
-
-                    json.append("  }");
-                    if(i < canvas.nodes.size - 1) json.append(",");
-                    json.append("\n");
-                }
-
-                json.append("]");
-
                 String savePath = editorMode.equals("game") ? "mods/studio-scripts/" : "mods/studio-mods/";
                 Fi saveFolder = Core.files.local(savePath);
                 saveFolder.mkdirs();
 
                 Fi saveFile = saveFolder.child(currentScriptName + ".json");
-                saveFile.writeString(json.toString());
+                saveFile.writeString(ScriptSerializer.write(canvas.nodes));
 
                 statusLabel.setText("Saved: " + currentScriptName);
                 Vars.ui.showInfoFade("Saved to: " + saveFile.path());
@@ -343,82 +327,8 @@ public class NodeEditor extends BaseDialog {
                 throw new Exception("File is empty");
             }
 
-            canvas.nodes.clear();
-            Seq<Node> loadedNodes = new Seq<>();
-            ObjectMap<String, String> idMap = new ObjectMap<>();
-
-            json = json.trim();
-            if(!json.startsWith("[")) {
-                throw new Exception("Invalid JSON format");
-            }
-
-            json = json.substring(1, json.length() - 1);
-            String[] nodeStrings = json.split("\\},\\s*\\{");
-
-            for(String nodeStr : nodeStrings) {
-                nodeStr = nodeStr.trim();
-                if(!nodeStr.startsWith("{")) nodeStr = "{" + nodeStr;
-                if(!nodeStr.endsWith("}")) nodeStr = nodeStr + "}";
-
-                Node node = new Node();
-                node.id = java.util.UUID.randomUUID().toString();
-
-                String oldId = extractValue(nodeStr, "id");
-                node.type = extractValue(nodeStr, "type");
-                node.label = extractValue(nodeStr, "label");
-
-                try {
-                    node.x = Float.parseFloat(extractValue(nodeStr, "x"));
-                    node.y = Float.parseFloat(extractValue(nodeStr, "y"));
-                } catch(Exception e) {
-                    node.x = 0;
-                    node.y = 0;
-                }
-
-                node.value = extractValue(nodeStr, "value");
-
-                try {
-                    node.color = Color.valueOf(extractValue(nodeStr, "color"));
-                } catch(Exception e) {
-                    node.color = Color.gray;
-                }
-
-                node.setupInputs();
-
-                String inputValuesStr = extractArray(nodeStr, "inputValues");
-                if(inputValuesStr != null && !inputValuesStr.isEmpty()) {
-                    String[] values = inputValuesStr.split("\",\\s*\"");
-                    for(int i = 0; i < Math.min(node.inputs.size, values.length); i++) {
-                        String val = values[i].replace("\"", "").replace("\\\"", "\"").trim();
-                        node.inputs.get(i).value = val;
-                    }
-                }
-
-                idMap.put(oldId, node.id);
-                loadedNodes.add(node);
-            }
-
-            for(int i = 0; i < nodeStrings.length; i++) {
-                String nodeStr = nodeStrings[i];
-                Node node = loadedNodes.get(i);
-
-                String connIdsStr = extractArray(nodeStr, "connectionIds");
-                if(connIdsStr != null && !connIdsStr.isEmpty()) {
-                    String[] connIds = connIdsStr.split("\",\\s*\"");
-                    for(String oldConnId : connIds) {
-                        oldConnId = oldConnId.replace("\"", "").trim();
-                        String newConnId = idMap.get(oldConnId);
-                        if(newConnId != null) {
-                            Node target = loadedNodes.find(n -> n.id.equals(newConnId));
-                            if(target != null) {
-                                node.connections.add(target);
-                            }
-                        }
-                    }
-                }
-            }
-
-            canvas.nodes = loadedNodes;
+            canvas.nodes = ScriptSerializer.read(json);
+            canvas.changed();
             currentScriptName = name;
             statusLabel.setText("Loaded: " + name + " (" + canvas.nodes.size + " nodes)");
             Vars.ui.showInfoFade("Loaded " + canvas.nodes.size + " nodes!");
@@ -431,75 +341,129 @@ public class NodeEditor extends BaseDialog {
         }
     }
 
-    private String extractValue(String json, String key) {
-        String search = "\"" + key + "\":";
-        int start = json.indexOf(search);
-        if(start == -1) return "";
-
-        start += search.length();
-        while(start < json.length() && (json.charAt(start) == ' ' || json.charAt(start) == '\n')) start++;
-
-        if(json.charAt(start) == '"') {
-            start++;
-            int end = start;
-            while(end < json.length()) {
-                if(json.charAt(end) == '"' && (end == 0 || json.charAt(end - 1) != '\\')) {
-                    return json.substring(start, end);
-                }
-                end++;
-            }
-        } else {
-            int end = start;
-            while(end < json.length() && json.charAt(end) != ',' && json.charAt(end) != '\n' && json.charAt(end) != '}') {
-                end++;
+    private void runScript() {
+        try {
+            if(editorMode.equals("mod")) {
+                executeModCreation();
+            } else {
+                executeGameScript();
             }
-            return json.substring(start, end).trim();
+        } catch(Exception e) {
+            Log.err("Run failed", e);
+            Vars.ui.showInfoFade("Error: " + e.getMessage());
         }
+    }
 
-        return "";
+    public ScriptPlan[] getCompiledPlans() {
+        if(compiledPlans == null || compiledRevision != canvas.revision) {
+            compiledPlans = ScriptEvents.compile(canvas.nodes);
+            compiledRevision = canvas.revision;
+        }
+        return compiledPlans;
     }
 
-    private String extractArray(String json, String key) {
-        String search = "\"" + key + "\":";
-        int start = json.indexOf(search);
-        if(start == -1) return "";
+    private void showVariableInspector() {
+        BaseDialog dialog = new BaseDialog("Variables");
+        dialog.cont.defaults().pad(6f);
 
-        start += search.length();
-        while(start < json.length() && json.charAt(start) != '[') start++;
-        if(start >= json.length()) return "";
+        ScriptPlan[] plans = runningPlans != null ? runningPlans : getCompiledPlans();
+        ScriptVariables variables = null;
+        for(ScriptPlan plan : plans) {
+            if(plan != null) variables = plan.variables;
+        }
 
-        start++;
-        int end = json.indexOf(']', start);
-        if(end == -1) return "";
+        if(variables == null || variables.size() == 0) {
+            Label label = new Label("No variables in this script");
+            label.setFontScale(1.3f);
+            dialog.cont.add(label).row();
+        } else {
+            Table table = new Table();
+            table.defaults().pad(6f).left();
+            for(int slot = 0; slot < variables.size(); slot++) {
+                ScriptVariables vars = variables;
+                int index = slot;
+                table.add("[lightgray]" + vars.name(slot)).width(250f);
+                //values of the latest run, blank until the script has run
+                table.label(() -> {
+                    ScriptValues values = StudioMod.runtime.latest(vars);
+                    return values == null ? "-" : values.format(index);
+                }).width(250f).row();
+            }
+            ScrollPane pane = new ScrollPane(table);
+            dialog.cont.add(pane).size(550f, 500f);
+        }
 
-        return json.substring(start, end).trim();
+        dialog.addCloseButton();
+        dialog.show();
     }
 
-    private void runScript() {
-        try {
-            if(editorMode.equals("mod")) {
-                executeModCreation();
-            } else {
-                executeGameScript();
+    private void showTrace() {
+        BaseDialog dialog = new BaseDialog("Execution Trace");
+        Table list = new Table();
+        list.defaults().left().pad(2f);
+
+        Runnable rebuild = () -> {
+            list.clearChildren();
+            int shown = Math.min(ScriptTrace.size(), 300);
+            if(shown == 0) {
+                list.add("[lightgray]Trace is empty").row();
             }
-        } catch(Exception e) {
-            Log.err("Run failed", e);
-            Vars.ui.showInfoFade("Error: " + e.getMessage());
+            for(int age = 0; age < shown; age++) {
+                list.add(ScriptTrace.format(age)).row();
+            }
+        };
+        rebuild.run();
+
+        Table levels = new Table();
+        ButtonGroup<TextButton> group = new ButtonGroup<>();
+        for(int i = 0; i < ScriptTrace.levelNames.length; i++) {
+            int level = i;
+            TextButton button = new TextButton(ScriptTrace.levelNames[i], Styles.togglet);
+            group.add(button);
+            button.setChecked(ScriptTrace.level == level);
+            button.clicked(() -> ScriptTrace.level = level);
+            levels.add(button).size(140f, 60f).pad(4f);
         }
+
+        dialog.cont.add("[lightgray]Record level:").row();
+        dialog.cont.add(levels).row();
+        ScrollPane pane = new ScrollPane(list);
+        dialog.cont.add(pane).size(900f, 550f).row();
+
+        dialog.buttons.button("Refresh", Icon.refresh, rebuild).size(200f, 64f);
+        dialog.buttons.button("Clear", Icon.trash, () -> {
+            ScriptTrace.clear();
+            rebuild.run();
+        }).size(200f, 64f);
+        dialog.addCloseButton();
+        dialog.show();
     }
 
     private void executeGameScript() {
-        boolean hasEventNode = false;
-        for(Node node : canvas.nodes) {
-            if(node.type.equals("event")) {
-                hasEventNode = true;
-                StudioMod.executeNodeChain(node, null);
-            }
+        ScriptPlan[] plans = getCompiledPlans();
+
+        int triggers = 0;
+        String error = null;
+        String warning = null;
+        for(ScriptPlan plan : plans) {
+            if(plan == null) continue;
+            triggers++;
+            if(error == null) error = plan.error;
+            if(warning == null && !plan.warnings.isEmpty()) warning = plan.warnings.first();
         }
-        if(!hasEventNode) {
+
+        if(triggers == 0) {
             Vars.ui.showInfoFade("No event nodes! Add 'On Start' or 'On Wave'.");
+        } else if(error != null) {
+            Vars.ui.showInfoFade("[red]" + error);
+            statusLabel.setText("Script not executed: " + error);
         } else {
-            statusLabel.setText("Script executed!");
+            StudioMod.events.load(this, plans);
+            runningPlans = plans;
+            if(plans[ScriptEvents.EVENT_START] != null) {
+                StudioMod.runtime.start(plans[ScriptEvents.EVENT_START]);
+            }
+            statusLabel.setText(warning == null ? "Script running!" : "Running with warnings: " + warning);
         }
     }private void executeModCreation() {
         boolean hasModFolder = false;
@@ -512,13 +476,11 @@ public class NodeEditor extends BaseDialog {
 
                 if(!modFolder.exists()) {
                     modFolder.mkdirs();
-                    Log.info("Created mod folder: " + modFolder.path());
+                    ScriptTrace.record(ScriptTrace.LEVEL_INFO, ScriptTrace.EVENT_FOLDER_CREATED, modFolder, 0f);
                     Vars.ui.showInfoFade("Created: " + modFolder.path());
                 }
 
-                for(Node child : node.connections) {
-                    executeModNode(child, modFolder);
-                }
+                executeModTree(node, modFolder);
             }
         }
 
@@ -530,9 +492,58 @@ public class NodeEditor extends BaseDialog {
         }
     }
 
-    private void executeModNode(Node node, Fi currentFolder) {
+    //walks the mod tree with an explicit stack; links back to a node already on the current path are skipped
+    private void executeModTree(Node root, Fi rootFolder) {
+        Seq<ModStep> stack = new Seq<>();
+        pushModChildren(stack, new ModStep(root, rootFolder, null, 0), rootFolder);
+
+        while(!stack.isEmpty()) {
+            ModStep step = stack.pop();
+            Fi childFolder = executeModNode(step.node, step.folder);
+            if(childFolder != null) {
+                pushModChildren(stack, step, childFolder);
+            }
+        }
+    }
+
+    private void pushModChildren(Seq<ModStep> stack, ModStep parent, Fi folder) {
+        if(parent.depth >= StudioMod.maxChainDepth) return;
+
+        for(int i = parent.node.connections.size - 1; i >= 0; i--) {
+            Node child = parent.node.connections.get(i);
+            if(parent.onPath(child)) {
+                ScriptTrace.record(ScriptTrace.LEVEL_WARN, ScriptTrace.EVENT_CYCLE_SKIPPED, child, 0f);
+                continue;
+            }
+            stack.add(new ModStep(child, folder, parent, parent.depth + 1));
+        }
+    }
+
+    private static class ModStep {
+        final Node node;
+        final Fi folder;
+        final ModStep parent;
+        final int depth;
+
+        ModStep(Node node, Fi folder, ModStep parent, int depth) {
+            this.node = node;
+            this.folder = folder;
+            this.parent = parent;
+            this.depth = depth;
+        }
+
+        boolean onPath(Node other) {
+            for(ModStep step = this; step != null; step = step.parent) {
+                if(step.node == other) return true;
+            }
+            return false;
+        }
+    }
+
+    //executes a single mod node; returns the folder its children are created in, or null if it has none
+    private Fi executeModNode(Node node, Fi currentFolder) {
         try {
-            Log.info("Executing mod node: " + node.label + " in folder: " + currentFolder.path());
+            ScriptTrace.record(ScriptTrace.LEVEL_DEBUG, ScriptTrace.EVENT_MOD_NODE, node, 0f);
 
             if(node.label.equals("Create Folder")) {
                 String folderName = node.inputs.get(0).value;
@@ -540,18 +551,15 @@ public class NodeEditor extends BaseDialog {
                 
                 if(!newFolder.exists()) {
                     newFolder.mkdirs();
-                    Log.info("Created folder: " + newFolder.path());
+                    ScriptTrace.record(ScriptTrace.LEVEL_INFO, ScriptTrace.EVENT_FOLDER_CREATED, newFolder, 0f);
                 }
                 
-                if(newFolder.isDirectory()) {
-                    Log.info("Verified folder exists: " + newFolder.path());
-                } else {
+                if(!newFolder.isDirectory()) {
+                    ScriptTrace.record(ScriptTrace.LEVEL_ERROR, ScriptTrace.EVENT_FILE_FAILED, newFolder, 0f);
                     Log.err("ERROR: " + newFolder.path() + " is not a directory!");
                 }
 
-                for(Node child : node.connections) {
-                    executeModNode(child, newFolder);
-                }
+                return newFolder;
             }
             else if(node.label.equals("Create mod.hjson")) {
                 String modName = node.inputs.get(0).value;
@@ -568,16 +576,15 @@ public class NodeEditor extends BaseDialog {
                 
                 if(!currentFolder.exists()) {
                     currentFolder.mkdirs();
-                    Log.info("Created parent directory: " + currentFolder.path());
+                    ScriptTrace.record(ScriptTrace.LEVEL_INFO, ScriptTrace.EVENT_FOLDER_CREATED, currentFolder, 0f);
                 }
                 
                 hjsonFile.writeString(hjson);
                 
                 if(hjsonFile.exists()) {
-                    Log.info("✓ VERIFIED: Created mod.hjson at: " + hjsonFile.path());
-                    Log.info("  File size: " + hjsonFile.length() + " bytes");
-                    Log.info("  Java file: " + hjsonFile.file().getAbsolutePath());
+                    ScriptTrace.record(ScriptTrace.LEVEL_INFO, ScriptTrace.EVENT_FILE_WRITTEN, hjsonFile, 0f);
                 } else {
+                    ScriptTrace.record(ScriptTrace.LEVEL_ERROR, ScriptTrace.EVENT_FILE_FAILED, hjsonFile, 0f);
                     Log.err("✗ FAILED: mod.hjson was NOT created at: " + hjsonFile.path());
                 }
             }
@@ -595,16 +602,15 @@ public class NodeEditor extends BaseDialog {
                 
                 if(!currentFolder.exists()) {
                     currentFolder.mkdirs();
-                    Log.info("Created parent directory: " + currentFolder.path());
+                    ScriptTrace.record(ScriptTrace.LEVEL_INFO, ScriptTrace.EVENT_FOLDER_CREATED, currentFolder, 0f);
                 }
                 
                 blockFile.writeString(hjson);
                 
                 if(blockFile.exists()) {
-                    Log.info("✓ VERIFIED: Created block file at: " + blockFile.path());
-                    Log.info("  File size: " + blockFile.length() + " bytes");
-                    Log.info("  Java file: " + blockFile.file().getAbsolutePath());
+                    ScriptTrace.record(ScriptTrace.LEVEL_INFO, ScriptTrace.EVENT_FILE_WRITTEN, blockFile, 0f);
                 } else {
+                    ScriptTrace.record(ScriptTrace.LEVEL_ERROR, ScriptTrace.EVENT_FILE_FAILED, blockFile, 0f);
                     Log.err("✗ FAILED: Block file was NOT created at: " + blockFile.path());
                 }
             }
@@ -622,16 +628,15 @@ public class NodeEditor extends BaseDialog {
                 
                 if(!currentFolder.exists()) {
                     currentFolder.mkdirs();
-                    Log.info("Created parent directory: " + currentFolder.path());
+                    ScriptTrace.record(ScriptTrace.LEVEL_INFO, ScriptTrace.EVENT_FOLDER_CREATED, currentFolder, 0f);
                 }
                 
                 unitFile.writeString(hjson);
                 
                 if(unitFile.exists()) {
-                    Log.info("✓ VERIFIED: Created unit file at: " + unitFile.path());
-                    Log.info("  File size: " + unitFile.length() + " bytes");
-                    Log.info("  Java file: " + unitFile.file().getAbsolutePath());
+                    ScriptTrace.record(ScriptTrace.LEVEL_INFO, ScriptTrace.EVENT_FILE_WRITTEN, unitFile, 0f);
                 } else {
+                    ScriptTrace.record(ScriptTrace.LEVEL_ERROR, ScriptTrace.EVENT_FILE_FAILED, unitFile, 0f);
                     Log.err("✗ FAILED: Unit file was NOT created at: " + unitFile.path());
                 }
             }
@@ -647,16 +652,15 @@ public class NodeEditor extends BaseDialog {
                 
                 if(!currentFolder.exists()) {
                     currentFolder.mkdirs();
-                    Log.info("Created parent directory: " + currentFolder.path());
+                    ScriptTrace.record(ScriptTrace.LEVEL_INFO, ScriptTrace.EVENT_FOLDER_CREATED, currentFolder, 0f);
                 }
                 
                 itemFile.writeString(hjson);
                 
                 if(itemFile.exists()) {
-                    Log.info("✓ VERIFIED: Created item file at: " + itemFile.path());
-                    Log.info("  File size: " + itemFile.length() + " bytes");
-                    Log.info("  Java file: " + itemFile.file().getAbsolutePath());
+                    ScriptTrace.record(ScriptTrace.LEVEL_INFO, ScriptTrace.EVENT_FILE_WRITTEN, itemFile, 0f);
                 } else {
+                    ScriptTrace.record(ScriptTrace.LEVEL_ERROR, ScriptTrace.EVENT_FILE_FAILED, itemFile, 0f);
                     Log.err("✗ FAILED: Item file was NOT created at: " + itemFile.path());
                 }
             }
@@ -664,5 +668,6 @@ public class NodeEditor extends BaseDialog {
             Log.err("Error in executeModNode: " + node.label, e);
             Vars.ui.showInfoFade("Error creating " + node.label + ": " + e.getMessage());
         }
+        return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,168 @@
+package studio;
+
+import arc.math.geom.*;
+import arc.struct.*;
+
+import java.util.*;
+
+//uniform grid over node bounds for hit testing and range queries on the canvas;
+//nodes remember their insertion order so results keep the canvas draw order
+public class NodeGrid {
+    public static final float cellSize = 512f;
+    //matches the grab margin around nodes used for hit testing
+    public static final float margin = 20f;
+
+    private static final Comparator<Entry> byOrder = (a, b) -> Integer.compare(a.order, b.order);
+
+    private final IntMap<Seq<Entry>> cells = new IntMap<>();
+    private final ObjectMap<Node, Entry> entries = new ObjectMap<>();
+    private final Seq<Entry> found = new Seq<>(false, 16);
+    private int nextOrder = 0;
+    private int stamp = 0;
+
+    public void rebuild(Seq<Node> nodes) {
+        cells.clear();
+        entries.clear();
+        nextOrder = 0;
+        for(int i = 0; i < nodes.size; i++) {
+            add(nodes.get(i));
+        }
+    }
+
+    //nodes added later are treated as drawn on top
+    public void add(Node node) {
+        Entry entry = new Entry();
+        entry.node = node;
+        entry.order = nextOrder++;
+        entries.put(node, entry);
+        insert(entry);
+    }
+
+    public void remove(Node node) {
+        Entry entry = entries.remove(node);
+        if(entry != null) erase(entry);
+    }
+
+    //call after a node has moved or been resized
+    public void update(Node node) {
+        Entry entry = entries.get(node);
+        if(entry == null) return;
+
+        int minX = cell(node.x - margin), minY = cell(node.y - margin);
+        int maxX = cell(node.x + node.width + margin), maxY = cell(node.y + node.height + margin);
+        if(minX == entry.minX && minY == entry.minY && maxX == entry.maxX && maxY == entry.maxY) return;
+
+        erase(entry);
+        insert(entry);
+    }
+
+    public int size() {
+        return entries.size;
+    }
+
+    public boolean contains(Node node) {
+        return entries.containsKey(node);
+    }
+
+    //topmost node whose bounds, grown by the grab margin, contain the point
+    public Node at(float x, float y) {
+        Seq<Entry> cell = cells.get(Point2.pack(cell(x), cell(y)));
+        if(cell == null) return null;
+
+        Entry best = null;
+        for(int i = 0; i < cell.size; i++) {
+            Entry entry = cell.get(i);
+            Node node = entry.node;
+            if((best == null || entry.order > best.order) &&
+               x >= node.x - margin && x <= node.x + node.width + margin &&
+               y >= node.y - margin && y <= node.y + node.height + margin) {
+                best = entry;
+            }
+        }
+        return best == null ? null : best.node;
+    }
+
+    //adds every node whose bounds overlap the rectangle to out, bottom to top
+    public Seq<Node> within(float x, float y, float width, float height, Seq<Node> out) {
+        out.clear();
+        found.clear();
+        stamp++;
+
+        int minX = cell(x), minY = cell(y), maxX = cell(x + width), maxY = cell(y + height);
+        if((long)(maxX - minX + 1) * (maxY - minY + 1) > entries.size) {
+            //the rectangle covers more cells than there are nodes, checking each node is cheaper
+            for(Entry entry : entries.values()) {
+                collect(entry, x, y, width, height);
+            }
+        } else {
+            for(int cy = minY; cy <= maxY; cy++) {
+                for(int cx = minX; cx <= maxX; cx++) {
+                    Seq<Entry> cell = cells.get(Point2.pack(cx, cy));
+                    if(cell == null) continue;
+                    for(int i = 0; i < cell.size; i++) {
+                        collect(cell.get(i), x, y, width, height);
+                    }
+                }
+            }
+        }
+
+        found.sort(byOrder);
+        for(int i = 0; i < found.size; i++) {
+            out.add(found.get(i).node);
+        }
+        found.clear();
+        return out;
+    }
+
+    private void collect(Entry entry, float x, float y, float width, float height) {
+        if(entry.stamp == stamp) return;
+        entry.stamp = stamp;
+
+        Node node = entry.node;
+        if(node.x <= x + width && node.x + node.width >= x && node.y <= y + height && node.y + node.height >= y) {
+            found.add(entry);
+        }
+    }
+
+    private void insert(Entry entry) {
+        Node node = entry.node;
+        entry.minX = cell(node.x - margin);
+        entry.minY = cell(node.y - margin);
+        entry.maxX = cell(node.x + node.width + margin);
+        entry.maxY = cell(node.y + node.height + margin);
+
+        for(int cy = entry.minY; cy <= entry.maxY; cy++) {
+            for(int cx = entry.minX; cx <= entry.maxX; cx++) {
+                int key = Point2.pack(cx, cy);
+                Seq<Entry> cell = cells.get(key);
+                if(cell == null) {
+                    cell = new Seq<>(false, 4);
+                    cells.put(key, cell);
+                }
+                cell.add(entry);
+            }
+        }
+    }
+
+    private void erase(Entry entry) {
+        for(int cy = entry.minY; cy <= entry.maxY; cy++) {
+            for(int cx = entry.minX; cx <= entry.maxX; cx++) {
+                int key = Point2.pack(cx, cy);
+                Seq<Entry> cell = cells.get(key);
+                if(cell == null) continue;
+                cell.remove(entry, true);
+                if(cell.isEmpty()) cells.remove(key);
+            }
+        }
+    }
+
+    private static int cell(float coord) {
+        return (int)Math.floor(coord / cellSize);
+    }
+
+    private static class Entry {
+        Node node;
+        int order, stamp;
+        int minX, minY, maxX, maxY;
+    }
+}
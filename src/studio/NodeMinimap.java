@@ -0,0 +1,168 @@
+package studio;
+
+import arc.graphics.*;
+import arc.graphics.g2d.*;
+import arc.graphics.gl.*;
+import arc.math.geom.*;
+import arc.struct.*;
+import arc.util.*;
+
+//overview of every node, kept in a small framebuffer. the whole texture is redrawn when the graph changes;
+//a moved node only repaints the area it left and the nodes overlapping it
+public class NodeMinimap {
+    public static final int textureWidth = 256, textureHeight = 160;
+    //world space kept around the outermost nodes
+    private static final float padding = 400f;
+
+    private static final Color background = new Color(0.1f, 0.1f, 0.13f, 1f);
+
+    private FrameBuffer buffer;
+    private int builtRevision = -1;
+
+    //world area shown, and the mapping from it to texture pixels
+    private final Rect bounds = new Rect();
+    private float scale = 1f, originX, originY;
+
+    //nodes moved since the last update and where they were drawn before the move
+    private final Seq<Node> moved = new Seq<>();
+    private final ObjectSet<Node> movedSet = new ObjectSet<>();
+    private final FloatSeq movedFrom = new FloatSeq();
+    private final Seq<Node> overlapping = new Seq<>();
+    private final Mat savedProj = new Mat();
+
+    public void moved(Node node, float oldX, float oldY) {
+        if(!movedSet.add(node)) return;
+
+        moved.add(node);
+        movedFrom.add(oldX, oldY);
+    }
+
+    //forces a full rebuild on the next update, for changes that were not tracked through moved
+    public void invalidate() {
+        builtRevision = -1;
+    }
+
+    //frees the texture; the next update creates and fills a new one
+    public void dispose() {
+        if(buffer != null) {
+            buffer.dispose();
+            buffer = null;
+        }
+        builtRevision = -1;
+    }
+
+    public Texture texture() {
+        return buffer.getTexture();
+    }
+
+    //brings the texture up to date with the canvas; must be called while the batch is active
+    public void update(NodeCanvas canvas) {
+        if(buffer == null) {
+            buffer = new FrameBuffer(textureWidth, textureHeight);
+        }
+
+        if(builtRevision != canvas.revision || !movesFit()) {
+            rebuild(canvas);
+        } else if(!moved.isEmpty()) {
+            begin();
+            for(int i = 0; i < moved.size; i++) {
+                Node node = moved.get(i);
+                float oldX = movedFrom.get(i * 2), oldY = movedFrom.get(i * 2 + 1);
+
+                Draw.color(background);
+                Fill.rect(textureX(oldX + node.width / 2f), textureY(oldY + node.height / 2f), node.width * scale + 2f, node.height * scale + 2f);
+
+                canvas.getNodesIn(oldX, oldY, node.width, node.height, overlapping);
+                for(int j = 0; j < overlapping.size; j++) {
+                    drawNode(overlapping.get(j));
+                }
+                drawNode(node);
+            }
+            end();
+        }
+
+        moved.clear();
+        movedSet.clear();
+        movedFrom.clear();
+    }
+
+    private void rebuild(NodeCanvas canvas) {
+        Seq<Node> nodes = canvas.nodes;
+        float minX = 0f, minY = 0f, maxX = 0f, maxY = 0f;
+        for(int i = 0; i < nodes.size; i++) {
+            Node node = nodes.get(i);
+            if(i == 0) {
+                minX = node.x;
+                minY = node.y;
+                maxX = node.x + node.width;
+                maxY = node.y + node.height;
+            } else {
+                minX = Math.min(minX, node.x);
+                minY = Math.min(minY, node.y);
+                maxX = Math.max(maxX, node.x + node.width);
+                maxY = Math.max(maxY, node.y + node.height);
+            }
+        }
+        bounds.set(minX - padding, minY - padding, maxX - minX + padding * 2f, maxY - minY + padding * 2f);
+
+        //keep the aspect ratio and center the graph in the texture
+        scale = Math.min(textureWidth / bounds.width, textureHeight / bounds.height);
+        originX = (textureWidth - bounds.width * scale) / 2f;
+        originY = (textureHeight - bounds.height * scale) / 2f;
+
+        begin();
+        Draw.color(background);
+        Fill.rect(textureWidth / 2f, textureHeight / 2f, textureWidth, textureHeight);
+        for(int i = 0; i < nodes.size; i++) {
+            drawNode(nodes.get(i));
+        }
+        end();
+
+        builtRevision = canvas.revision;
+    }
+
+    //a node dragged outside the mapped area needs a new mapping
+    private boolean movesFit() {
+        for(int i = 0; i < moved.size; i++) {
+            Node node = moved.get(i);
+            if(node.x < bounds.x || node.y < bounds.y || node.x + node.width > bounds.x + bounds.width || node.y + node.height > bounds.y + bounds.height) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void drawNode(Node node) {
+        Draw.color(node.color);
+        Fill.rect(textureX(node.x + node.width / 2f), textureY(node.y + node.height / 2f), Math.max(node.width * scale, 1f), Math.max(node.height * scale, 1f));
+    }
+
+    private void begin() {
+        Draw.flush();
+        savedProj.set(Draw.proj());
+        Draw.proj(0f, 0f, textureWidth, textureHeight);
+        buffer.begin();
+    }
+
+    private void end() {
+        Draw.flush();
+        buffer.end();
+        Draw.proj(savedProj);
+    }
+
+    public float textureX(float worldX) {
+        return originX + (worldX - bounds.x) * scale;
+    }
+
+    public float textureY(float worldY) {
+        return originY + (worldY - bounds.y) * scale;
+    }
+
+    public float worldX(float textureX) {
+        return (textureX - originX) / scale + bounds.x;
+    }
+
+    public float worldY(float textureY) {
+        return (textureY - originY) / scale + bounds.y;
+    }
+}
@@ -0,0 +1,40 @@
+package studio;
+
+import arc.graphics.*;
+import arc.graphics.g2d.*;
+import arc.util.*;
+
+//glyph layouts for the strings drawn on a node, laid out again only when the text, color or font scale changes;
+//the font scale must already be set to the requested scale when calling get
+public class NodeText {
+    public static final int SLOT_LABEL = 0;
+    public static final int SLOT_VALUE = 1;
+    public static final int SLOT_TYPE = 2;
+
+    //font scales are rounded to this step so small zoom changes reuse the cached layouts
+    public static final float scaleStep = 0.05f;
+
+    private final GlyphLayout[] layouts = new GlyphLayout[3];
+    private final String[] texts = new String[3];
+    private final float[] scales = new float[3];
+    private final Color[] colors = {new Color(), new Color(), new Color()};
+
+    public GlyphLayout get(Font font, int slot, String text, float scale, Color color) {
+        GlyphLayout layout = layouts[slot];
+        if(layout == null) {
+            layout = layouts[slot] = new GlyphLayout();
+        } else if(texts[slot] == text && scales[slot] == scale && colors[slot].equals(color)) {
+            return layout;
+        }
+
+        texts[slot] = text;
+        scales[slot] = scale;
+        colors[slot].set(color);
+        layout.setText(font, text, color, 0f, Align.left, false);
+        return layout;
+    }
+
+    public static float bucket(float scale) {
+        return Math.max(Math.round(scale / scaleStep) * scaleStep, scaleStep);
+    }
+}
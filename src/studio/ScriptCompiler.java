@@ -0,0 +1,236 @@
+package studio;
+
+import arc.struct.*;
+
+public class ScriptCompiler {
+
+    public static ScriptPlan compile(Seq<Node> graph) {
+        Seq<Node> roots = new Seq<>();
+        for(Node node : graph) {
+            if("event".equals(node.type)) {
+                roots.add(node);
+            }
+        }
+        ScriptVariables variables = new ScriptVariables();
+        declareVariables(graph, variables);
+        return compileFrom(roots, variables);
+    }
+
+    public static ScriptPlan compileFrom(Seq<Node> roots, ScriptVariables variables) {
+        //iterative depth-first search from the roots: collects every reachable node exactly once and
+        //finds the edges that close a cycle (edges back to a node that is still on the search path)
+        Seq<Node> reachable = new Seq<>();
+        ObjectIntMap<Node> state = new ObjectIntMap<>();
+        ObjectMap<Node, Seq<Node>> backEdges = new ObjectMap<>();
+        int backEdgeCount = 0;
+        Seq<Node> stack = new Seq<>();
+        IntSeq iterators = new IntSeq();
+
+        for(Node root : roots) {
+            if(state.get(root, 0) != 0) continue;
+            state.put(root, 1);
+            reachable.add(root);
+            stack.add(root);
+            iterators.add(0);
+
+            while(!stack.isEmpty()) {
+                Node node = stack.peek();
+                int it = iterators.peek();
+
+                if(it < node.connections.size) {
+                    iterators.incr(iterators.size - 1, 1);
+                    Node target = node.connections.get(it);
+                    int targetState = state.get(target, 0);
+
+                    if(targetState == 0) {
+                        state.put(target, 1);
+                        reachable.add(target);
+                        stack.add(target);
+                        iterators.add(0);
+                    } else if(targetState == 1) {
+                        Seq<Node> back = backEdges.get(node);
+                        if(back == null) backEdges.put(node, back = new Seq<>());
+                        back.add(target);
+                        backEdgeCount++;
+                    }
+                } else {
+                    state.put(node, 2);
+                    stack.pop();
+                    iterators.pop();
+                }
+            }
+        }
+
+        //in-degree from the reverse index: links from reachable sources, minus the back edges
+        ObjectIntMap<Node> inDegree = new ObjectIntMap<>();
+        for(Node node : reachable) {
+            int degree = 0;
+            for(Node source : node.sources) {
+                if(state.get(source, 0) != 0) degree++;
+            }
+            if(degree > 0) inDegree.put(node, degree);
+        }
+        for(ObjectMap.Entry<Node, Seq<Node>> entry : backEdges) {
+            for(Node target : entry.value) {
+                inDegree.put(target, inDegree.get(target, 0) - 1);
+            }
+        }
+
+        //Kahn's algorithm over the forward edges; roots come first so that events keep their original order,
+        //and every back edge ends up pointing to a lower index
+        Seq<Node> order = new Seq<>(reachable.size);
+        Queue<Node> ready = new Queue<>();
+        for(Node node : reachable) {
+            if(inDegree.get(node, 0) == 0) {
+                ready.addLast(node);
+            }
+        }
+        while(!ready.isEmpty()) {
+            Node node = ready.removeFirst();
+            order.add(node);
+            Seq<Node> back = backEdges.get(node);
+            for(Node target : node.connections) {
+                if(back != null && back.contains(target, true)) continue;
+                int remaining = inDegree.get(target, 0) - 1;
+                inDegree.put(target, remaining);
+                if(remaining == 0) {
+                    ready.addLast(target);
+                }
+            }
+        }
+
+        int size = order.size;
+        Seq<String> warnings = new Seq<>();
+        ObjectIntMap<Node> index = new ObjectIntMap<>();
+        Node[] nodes = new Node[size];
+        int[] ops = new int[size];
+        int[] slots = new int[size];
+        for(int i = 0; i < size; i++) {
+            Node node = order.get(i);
+            index.put(node, i);
+            nodes[i] = node;
+            ops[i] = opcode(node);
+            slots[i] = -1;
+
+            if(ops[i] == ScriptPlan.OP_SET_VARIABLE) {
+                bind(node.inputs.get(1), variables, warnings);
+                slots[i] = variables.slot(node.inputs.get(0).value.trim(), valueType(node.inputs.get(1)));
+            } else if(ops[i] == ScriptPlan.OP_IF) {
+                bind(node.inputs.get(0), variables, warnings);
+            } else if(ops[i] == ScriptPlan.OP_GET_VARIABLE) {
+                String name = node.inputs.get(0).value.trim();
+                slots[i] = variables.find(name);
+                if(slots[i] == -1) {
+                    warnings.add("Variable is never set: " + name);
+                    ops[i] = ScriptPlan.OP_NONE;
+                }
+            }
+
+            String diagnostic = node.inputError();
+            if(diagnostic != null) {
+                warnings.add(diagnostic);
+            }
+        }
+
+        int edges = 0;
+        for(Node node : nodes) {
+            edges += node.connections.size;
+        }
+
+        int[] succStart = new int[size + 1];
+        int[] succ = new int[edges];
+        int pos = 0;
+        for(int i = 0; i < size; i++) {
+            succStart[i] = pos;
+            for(Node target : nodes[i].connections) {
+                int t = index.get(target, -1);
+                if(t != -1) {
+                    succ[pos++] = t;
+                }
+            }
+        }
+        succStart[size] = pos;
+
+        IntSeq rootIndices = new IntSeq();
+        for(Node root : roots) {
+            int i = index.get(root, -1);
+            if(i != -1 && !rootIndices.contains(i)) {
+                rootIndices.add(i);
+            }
+        }
+
+        ScriptPlan plan = new ScriptPlan(nodes, ops, succStart, succ, rootIndices.toArray());
+        plan.warnings = warnings;
+        plan.variables = variables;
+        plan.slots = slots;
+
+        if(backEdgeCount > 0) {
+            warnings.add(backEdgeCount + " link(s) form a cycle and repeat at most " + StudioMod.maxCycleRepeats + " times");
+        }
+        if(plan.depth > StudioMod.maxChainDepth) {
+            plan.error = "Chain is " + plan.depth + " nodes deep, the limit is " + StudioMod.maxChainDepth;
+        }
+        return plan;
+    }
+
+    //registers every Set Variable of a graph up front, so that reads compiled before the write still find their slot.
+    //a value read from other variables takes their slot types, so passes repeat until no slot is added or widened
+    public static void declareVariables(Seq<Node> graph, ScriptVariables variables) {
+        boolean changed = true;
+        while(changed) {
+            changed = false;
+            for(Node node : graph) {
+                if(opcode(node) != ScriptPlan.OP_SET_VARIABLE) continue;
+
+                String name = node.inputs.get(0).value.trim();
+                Node.NodeInput value = node.inputs.get(1);
+                value.bind(variables);
+
+                int slot = variables.find(name);
+                int before = slot == -1 ? -1 : variables.type(slot);
+                slot = variables.slot(name, valueType(value));
+                changed |= variables.type(slot) != before;
+            }
+        }
+    }
+
+    private static void bind(Node.NodeInput input, ScriptVariables variables, Seq<String> warnings) {
+        String unknown = input.bind(variables);
+        if(unknown != null) {
+            warnings.add("Variable is never set: " + unknown);
+        }
+    }
+
+    private static byte valueType(Node.NodeInput input) {
+        return input.expression == null ? ScriptVariables.TYPE_FLOAT : input.expression.type();
+    }
+
+    public static int opcode(Node node) {
+        if(node.type == null || node.label == null) return ScriptPlan.OP_NONE;
+
+        switch(node.type) {
+            case "event":
+                return ScriptPlan.OP_EVENT;
+
+            case "action":
+                switch(node.label) {
+                    case "Message": return ScriptPlan.OP_MESSAGE;
+                    case "Spawn Unit": return ScriptPlan.OP_SPAWN_UNIT;
+                    case "Set Block": return ScriptPlan.OP_SET_BLOCK;
+                }
+                break;
+
+            case "logic":
+                switch(node.label) {
+                    case "Wait": return ScriptPlan.OP_WAIT;
+                    case "If": return ScriptPlan.OP_IF;
+                    case "Loop": return ScriptPlan.OP_LOOP;
+                    case "Set Variable": return ScriptPlan.OP_SET_VARIABLE;
+                    case "Get Variable": return ScriptPlan.OP_GET_VARIABLE;
+                }
+                break;
+        }
+
+        return ScriptPlan.OP_NONE;
+    }
+}
@@ -0,0 +1,107 @@
+package studio;
+
+import arc.*;
+import arc.func.*;
+import arc.struct.*;
+import mindustry.game.EventType.*;
+
+public class ScriptEvents {
+    public static final int EVENT_START = 0;
+    public static final int EVENT_WAVE = 1;
+    public static final int EVENT_BUILD = 2;
+    public static final String[] eventLabels = {"On Start", "On Wave", "On Build"};
+
+    //loaded scripts by owner, each holding one plan per event id (null when the script has no such event)
+    private final ObjectMap<Object, ScriptPlan[]> scripts = new ObjectMap<>();
+    //flattened subscriber lists, rebuilt on load/unload so firing only walks subscribers
+    private final ScriptPlan[][] subscribers = {new ScriptPlan[0], new ScriptPlan[0], new ScriptPlan[0]};
+
+    private final Cons<WorldLoadEvent> worldListener = e -> fire(EVENT_START);
+    private final Cons<WaveEvent> waveListener = e -> fire(EVENT_WAVE);
+    private final Cons<BlockBuildEndEvent> buildListener = e -> {
+        if(!e.breaking) fire(EVENT_BUILD);
+    };
+    private final boolean[] subscribed = new boolean[3];
+
+    public static ScriptPlan[] compile(Seq<Node> graph) {
+        ScriptPlan[] plans = new ScriptPlan[eventLabels.length];
+        ScriptVariables variables = new ScriptVariables();
+        ScriptCompiler.declareVariables(graph, variables);
+        Seq<Node> roots = new Seq<>();
+
+        for(int event = 0; event < eventLabels.length; event++) {
+            roots.clear();
+            for(Node node : graph) {
+                if("event".equals(node.type) && eventLabels[event].equals(node.label)) {
+                    roots.add(node);
+                }
+            }
+            if(!roots.isEmpty()) {
+                plans[event] = ScriptCompiler.compileFrom(roots, variables);
+            }
+        }
+
+        return plans;
+    }
+
+    public void load(Object owner, ScriptPlan[] plans) {
+        unload(owner);
+        scripts.put(owner, plans);
+        rebuild();
+    }
+
+    public void unload(Object owner) {
+        ScriptPlan[] plans = scripts.remove(owner);
+        if(plans == null) return;
+
+        for(ScriptPlan plan : plans) {
+            if(plan != null) StudioMod.runtime.stop(plan);
+        }
+        rebuild();
+    }
+
+    public boolean isLoaded(Object owner) {
+        return scripts.containsKey(owner);
+    }
+
+    public void fire(int event) {
+        for(ScriptPlan plan : subscribers[event]) {
+            StudioMod.runtime.start(plan);
+        }
+    }
+
+    private void rebuild() {
+        for(int event = 0; event < subscribers.length; event++) {
+            Seq<ScriptPlan> list = new Seq<>(ScriptPlan.class);
+            for(ScriptPlan[] plans : scripts.values()) {
+                if(plans[event] != null && plans[event].error == null) {
+                    list.add(plans[event]);
+                }
+            }
+            subscribers[event] = list.toArray();
+
+            boolean wanted = list.size > 0;
+            if(wanted != subscribed[event]) {
+                subscribed[event] = wanted;
+                if(wanted) subscribe(event);
+                else unsubscribe(event);
+            }
+        }
+    }
+
+    private void subscribe(int event) {
+        switch(event) {
+            case EVENT_START: Events.on(WorldLoadEvent.class, worldListener); break;
+            case EVENT_WAVE: Events.on(WaveEvent.class, waveListener); break;
+            case EVENT_BUILD: Events.on(BlockBuildEndEvent.class, buildListener); break;
+        }
+    }
+
+    private void unsubscribe(int event) {
+        switch(event) {
+            case EVENT_START: Events.remove(WorldLoadEvent.class, worldListener); break;
+            case EVENT_WAVE: Events.remove(WaveEvent.class, waveListener); break;
+            case EVENT_BUILD: Events.remove(BlockBuildEndEvent.class, buildListener); break;
+        }
+    }
+}
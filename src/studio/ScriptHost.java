@@ -0,0 +1,40 @@
+package studio;
+
+import mindustry.type.*;
+import mindustry.world.*;
+
+//everything the script runtime needs from the outside world, so scripts can run without a client
+public interface ScriptHost {
+
+    //false while there is no world to act on; queued spawns and fills are dropped
+    boolean isActive();
+
+    //clock used by Wait, in milliseconds
+    long millis();
+
+    void message(String text, float seconds);
+
+    int wave();
+
+    //units of the script's team, of one type or of all types when type is null
+    int unitCount(UnitType type);
+
+    float playerX();
+
+    float playerY();
+
+    boolean hasCore();
+
+    float coreX();
+
+    float coreY();
+
+    void spawn(UnitType type, float x, float y);
+
+    int worldWidth();
+
+    int worldHeight();
+
+    //returns false when the tile does not exist or already holds the block
+    boolean setBlock(int x, int y, Block block);
+}
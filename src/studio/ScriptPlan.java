@@ -0,0 +1,68 @@
+package studio;
+
+import arc.struct.*;
+
+public class ScriptPlan {
+    public static final int OP_NONE = 0;
+    public static final int OP_EVENT = 1;
+    public static final int OP_MESSAGE = 2;
+    public static final int OP_SPAWN_UNIT = 3;
+    public static final int OP_SET_BLOCK = 4;
+    public static final int OP_WAIT = 5;
+    public static final int OP_IF = 6;
+    public static final int OP_LOOP = 7;
+    public static final int OP_SET_VARIABLE = 8;
+    public static final int OP_GET_VARIABLE = 9;
+
+    public final Node[] nodes;
+    public final int[] ops;
+    //successors of instruction i are succ[succStart[i]] until succ[succStart[i + 1]]
+    public final int[] succStart;
+    public final int[] succ;
+    public final int[] roots;
+    public String error;
+    public Seq<String> warnings = new Seq<>();
+
+    //slot table shared by all plans compiled from the same graph; each run keeps its own values
+    public ScriptVariables variables;
+    //variable slot of each instruction, -1 when it does not write or read a variable
+    public int[] slots;
+
+    //highest instruction index reachable over forward edges, i.e. where a Loop body ends
+    public final int[] reachEnd;
+    //longest chain of forward edges, in nodes
+    public final int depth;
+
+    public ScriptPlan(Node[] nodes, int[] ops, int[] succStart, int[] succ, int[] roots) {
+        this.nodes = nodes;
+        this.ops = ops;
+        this.succStart = succStart;
+        this.succ = succ;
+        this.roots = roots;
+
+        //successors at or below their own index are cycle back edges and are skipped here
+        reachEnd = new int[ops.length];
+        for(int i = ops.length - 1; i >= 0; i--) {
+            int end = i;
+            for(int s = succStart[i]; s < succStart[i + 1]; s++) {
+                if(succ[s] > i) end = Math.max(end, reachEnd[succ[s]]);
+            }
+            reachEnd[i] = end;
+        }
+
+        int[] chain = new int[ops.length];
+        int longest = 0;
+        for(int i = 0; i < ops.length; i++) {
+            chain[i] = Math.max(chain[i], 1);
+            longest = Math.max(longest, chain[i]);
+            for(int s = succStart[i]; s < succStart[i + 1]; s++) {
+                if(succ[s] > i) chain[succ[s]] = Math.max(chain[succ[s]], chain[i] + 1);
+            }
+        }
+        depth = longest;
+    }
+
+    public int size() {
+        return ops.length;
+    }
+}
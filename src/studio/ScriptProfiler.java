@@ -0,0 +1,40 @@
+package studio;
+
+import arc.struct.*;
+
+public class ScriptProfiler {
+    //checked once per resume; with this off the runtime does no timing at all
+    public static boolean enabled = false;
+    //largest cumulative time of any node since the last reset, used to scale the canvas heatmap
+    public static long maxTotalNanos = 0;
+    //bumped on every change to the recorded numbers, so the canvas knows when to redraw the heatmap
+    public static int revision = 0;
+
+    public static void record(Node node, long nanos) {
+        node.profileCalls++;
+        node.profileNanos += nanos;
+        if(nanos > node.profileMaxNanos) node.profileMaxNanos = nanos;
+        if(node.profileNanos > maxTotalNanos) maxTotalNanos = node.profileNanos;
+        revision++;
+    }
+
+    public static void reset(Seq<Node> nodes) {
+        for(Node node : nodes) {
+            node.profileCalls = 0;
+            node.profileNanos = 0;
+            node.profileMaxNanos = 0;
+        }
+        maxTotalNanos = 0;
+        revision++;
+    }
+
+    //0 for nodes that never ran, 1 for the most expensive node
+    public static float heat(Node node) {
+        return maxTotalNanos == 0 ? 0f : (float)node.profileNanos / maxTotalNanos;
+    }
+
+    public static String describe(Node node) {
+        return node.profileCalls + " calls | " +
+            String.format("%.2fms total | %.1fus max", node.profileNanos / 1000000f, node.profileMaxNanos / 1000f);
+    }
+}
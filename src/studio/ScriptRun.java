@@ -0,0 +1,179 @@
+package studio;
+
+import arc.util.*;
+
+import java.util.*;
+
+public class ScriptRun {
+    public final ScriptRuntime runtime;
+    public final ScriptPlan plan;
+    //variables of this run only, so overlapping runs of a plan do not share values
+    public final ScriptValues values;
+    public boolean finished = false;
+    //host time at which a Wait node lets the script continue
+    public long resumeAt = 0;
+
+    //nodes executed so far in this trigger, capped by StudioMod.maxNodesPerTrigger
+    public int visits = 0;
+    //nodes re-run through a cycle back edge, capped by StudioMod.maxCycleRepeats
+    public int repeats = 0;
+
+    private final boolean[] active;
+    //set for instructions activated by a back edge
+    private final boolean[] repeated;
+    private int pc = 0;
+    //lowest instruction re-activated through a cycle back edge, run again once the current pass ends
+    private int rewindTo = Integer.MAX_VALUE;
+
+    //open Loop nodes, innermost last
+    private int[] loopIndex = new int[4];
+    private int[] loopRemaining = new int[4];
+    private int loopDepth = 0;
+
+    public ScriptRun(ScriptRuntime runtime, ScriptPlan plan) {
+        this.runtime = runtime;
+        this.plan = plan;
+        this.values = new ScriptValues(plan.variables);
+        this.active = new boolean[plan.size()];
+        this.repeated = new boolean[plan.size()];
+        for(int root : plan.roots) {
+            active[root] = true;
+        }
+    }
+
+    //executes at most budget instructions or until the deadline passes or a Wait suspends the script;
+    //returns how many instructions were executed
+    public int resume(int budget, long deadlineNanos) {
+        int[] ops = plan.ops;
+        Node[] nodes = plan.nodes;
+        ScriptHost host = runtime.host;
+        int executed = 0;
+        int steps = 0;
+        boolean suspended = false;
+        boolean profile = ScriptProfiler.enabled;
+
+        while(true) {
+            if(pc >= ops.length) {
+                if(rewindTo == Integer.MAX_VALUE) break;
+                pc = rewindTo;
+                rewindTo = Integer.MAX_VALUE;
+            }
+
+            int i = pc++;
+            steps++;
+
+            if(active[i]) {
+                active[i] = false;
+                executed++;
+
+                if(++visits > StudioMod.maxNodesPerTrigger) {
+                    ScriptTrace.record(ScriptTrace.LEVEL_WARN, ScriptTrace.EVENT_NODE_LIMIT, nodes[i], StudioMod.maxNodesPerTrigger);
+                    host.message("[scarlet]Script stopped at " + nodes[i].label + ": more than " + StudioMod.maxNodesPerTrigger + " nodes run", 5);
+                    finished = true;
+                    return executed;
+                }
+
+                if(repeated[i]) {
+                    repeated[i] = false;
+                    if(++repeats > StudioMod.maxCycleRepeats) {
+                        ScriptTrace.record(ScriptTrace.LEVEL_WARN, ScriptTrace.EVENT_CYCLE_LIMIT, nodes[i], StudioMod.maxCycleRepeats);
+                        host.message("[scarlet]Script stopped at " + nodes[i].label + ": a cycle repeated more than " + StudioMod.maxCycleRepeats + " times", 5);
+                        finished = true;
+                        return executed;
+                    }
+                }
+
+                ScriptTrace.record(ScriptTrace.LEVEL_DEBUG, ScriptTrace.EVENT_NODE, nodes[i], 0f);
+                long start = profile ? Time.nanos() : 0L;
+                boolean proceed = true;
+
+                switch(ops[i]) {
+                    case ScriptPlan.OP_WAIT:
+                        resumeAt = host.millis() + (long)(nodes[i].inputs.get(0).floatValue * 1000f);
+                        suspended = true;
+                        break;
+
+                    case ScriptPlan.OP_IF:
+                        Expression condition = nodes[i].inputs.get(0).expression;
+                        proceed = condition != null && condition.test(values, host);
+                        break;
+
+                    case ScriptPlan.OP_LOOP:
+                        int count = nodes[i].inputs.get(0).intValue;
+                        if(count <= 0) {
+                            proceed = false;
+                        } else if(count > 1) {
+                            pushLoop(i, count - 1);
+                        }
+                        break;
+
+                    case ScriptPlan.OP_SET_VARIABLE:
+                        Expression value = nodes[i].inputs.get(1).expression;
+                        values.set(plan.slots[i], value == null ? 0f : value.eval(values, host));
+                        break;
+
+                    case ScriptPlan.OP_GET_VARIABLE:
+                        runtime.showVariable(values, plan.slots[i]);
+                        break;
+
+                    default:
+                        runtime.execute(ops[i], nodes[i]);
+                        break;
+                }
+
+                if(profile) {
+                    ScriptProfiler.record(nodes[i], Time.nanos() - start);
+                }
+
+                if(proceed) {
+                    activateSuccessors(i);
+                }
+            }
+
+            //restart loop bodies that have just been completed
+            while(loopDepth > 0 && i >= plan.reachEnd[loopIndex[loopDepth - 1]]) {
+                int top = loopDepth - 1;
+                if(loopRemaining[top] > 0) {
+                    loopRemaining[top]--;
+                    activateSuccessors(loopIndex[top]);
+                    pc = loopIndex[top] + 1;
+                    break;
+                }
+                loopDepth--;
+            }
+
+            if(suspended || executed >= budget) {
+                return executed;
+            }
+            //reading the clock is comparatively slow, so only check it every few steps
+            if((steps & 31) == 0 && Time.nanos() >= deadlineNanos) {
+                return executed;
+            }
+        }
+
+        finished = true;
+        return executed;
+    }
+
+    private void activateSuccessors(int i) {
+        int[] succ = plan.succ;
+        for(int s = plan.succStart[i]; s < plan.succStart[i + 1]; s++) {
+            int target = succ[s];
+            active[target] = true;
+            if(target <= i) {
+                repeated[target] = true;
+                if(target < rewindTo) rewindTo = target;
+            }
+        }
+    }
+
+    private void pushLoop(int index, int remaining) {
+        if(loopDepth == loopIndex.length) {
+            loopIndex = Arrays.copyOf(loopIndex, loopDepth * 2);
+            loopRemaining = Arrays.copyOf(loopRemaining, loopDepth * 2);
+        }
+        loopIndex[loopDepth] = index;
+        loopRemaining[loopDepth] = remaining;
+        loopDepth++;
+    }
+}
@@ -0,0 +1,154 @@
+package studio;
+
+import arc.math.*;
+import arc.struct.*;
+import arc.util.*;
+import mindustry.*;
+import mindustry.type.*;
+import mindustry.world.*;
+
+//runs compiled scripts against a host; owns the spawn and fill queues their nodes feed
+public class ScriptRuntime {
+    public final ScriptHost host;
+    public final SpawnQueue spawner;
+    public final BlockFill filler;
+    public final Seq<ScriptRun> runs = new Seq<>();
+    //values of the most recently started run per slot table, for the variable inspector
+    private final ObjectMap<ScriptVariables, ScriptValues> latest = new ObjectMap<>();
+    private int cursor = 0;
+
+    public ScriptRuntime(ScriptHost host) {
+        this.host = host;
+        this.spawner = new SpawnQueue(host);
+        this.filler = new BlockFill(host);
+    }
+
+    public ScriptRun start(ScriptPlan plan) {
+        ScriptRun run = new ScriptRun(this, plan);
+        runs.add(run);
+        latest.put(plan.variables, run.values);
+        return run;
+    }
+
+    public ScriptValues latest(ScriptVariables table) {
+        return latest.get(table);
+    }
+
+    public void stop(ScriptPlan plan) {
+        runs.removeAll(run -> run.plan == plan);
+        latest.remove(plan.variables);
+    }
+
+    public void stopAll() {
+        runs.clear();
+        latest.clear();
+    }
+
+    //stops all scripts and drops everything they queued
+    public void clear() {
+        stopAll();
+        spawner.clear();
+        filler.clear();
+    }
+
+    //called once per frame; shares the per-frame budget between running scripts round-robin
+    public void update() {
+        spawner.update();
+        filler.update();
+
+        if(runs.isEmpty()) return;
+
+        int budget = StudioMod.instructionBudget;
+        long deadline = Time.nanos() + (long)(StudioMod.frameBudgetMs * 1000000f);
+        long now = host.millis();
+
+        cursor = (cursor + 1) % runs.size;
+        for(int n = 0; n < runs.size && budget > 0; n++) {
+            ScriptRun run = runs.get((cursor + n) % runs.size);
+            if(run.finished || run.resumeAt > now) continue;
+
+            budget -= run.resume(budget, deadline);
+
+            if(Time.nanos() >= deadline) break;
+        }
+
+        runs.removeAll(run -> run.finished);
+    }
+
+    public void execute(int op, Node node) {
+        switch(op) {
+            case ScriptPlan.OP_MESSAGE:
+                String message = node.inputs.size > 0 ? node.inputs.get(0).value : "Hello!";
+                host.message(message, 3);
+                break;
+
+            case ScriptPlan.OP_SPAWN_UNIT:
+                spawnUnits(node);
+                break;
+
+            case ScriptPlan.OP_SET_BLOCK:
+                setBlock(node);
+                break;
+        }
+    }
+
+    public void showVariable(ScriptValues values, int slot) {
+        host.message(values.table.name(slot) + " = " + values.format(slot), 2);
+    }
+
+    private void spawnUnits(Node node) {
+        try {
+            if(node.inputs.size < 3) return;
+
+            UnitType unitType = (UnitType)node.inputs.get(0).content;
+            if(unitType == null) return;
+
+            int amount = node.inputs.get(1).intValue;
+            int spawnLocation = node.inputs.get(2).intValue;
+
+            float spawnX = host.playerX();
+            float spawnY = host.playerY();
+
+            if(spawnLocation == 1) {
+                if(host.hasCore()) {
+                    float angle = Mathf.random(360f);
+                    spawnX = host.coreX() + Angles.trnsx(angle, 800f * 8f);
+                    spawnY = host.coreY() + Angles.trnsy(angle, 800f * 8f);
+                }
+            } else if(spawnLocation == 0) {
+                float angle = Mathf.random(360f);
+                float distance = Mathf.random(64f, 128f);
+                spawnX = host.playerX() + Angles.trnsx(angle, distance);
+                spawnY = host.playerY() + Angles.trnsy(angle, distance);
+            } else if(node.inputs.size >= 5) {
+                spawnX = node.inputs.get(3).floatValue * Vars.tilesize;
+                spawnY = node.inputs.get(4).floatValue * Vars.tilesize;
+            }
+
+            spawner.add(unitType, spawnX, spawnY, amount);
+        } catch(Exception e) {
+            Log.err("Failed to spawn unit", e);
+        }
+    }
+
+    private void setBlock(Node node) {
+        try {
+            if(node.inputs.size < 3) return;
+
+            int x = node.inputs.get(0).intValue;
+            int y = node.inputs.get(1).intValue;
+
+            Block block = (Block)node.inputs.get(2).content;
+            if(block == null) return;
+
+            int shape = node.inputs.size >= 7 ? node.inputs.get(3).intValue : BlockFill.SHAPE_SINGLE;
+            int x2 = node.inputs.size >= 7 ? node.inputs.get(4).intValue : x;
+            int y2 = node.inputs.size >= 7 ? node.inputs.get(5).intValue : y;
+            IntSeq mask = node.inputs.size >= 7 ? node.inputs.get(6).cells : null;
+
+            filler.add(block, shape, x, y, x2, y2, mask);
+        } catch(Exception e) {
+            Log.err("Failed to set block", e);
+        }
+    }
+}
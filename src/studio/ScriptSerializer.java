@@ -0,0 +1,169 @@
+package studio;
+
+import arc.graphics.*;
+import arc.struct.*;
+
+//reads and writes the json script format used by the editor's save and load dialogs
+public class ScriptSerializer {
+
+    public static String write(Seq<Node> nodes) {
+        StringBuilder json = new StringBuilder();
+        json.append("[\n");
+
+        for(int i = 0; i < nodes.size; i++) {
+            Node node = nodes.get(i);
+            json.append("  {\n");
+            json.append("    \"id\": \"").append(node.id).append("\",\n");
+            json.append("    \"type\": \"").append(node.type).append("\",\n");
+            json.append("    \"label\": \"").append(node.label).append("\",\n");
+            json.append("    \"x\": ").append(node.x).append(",\n");
+            json.append("    \"y\": ").append(node.y).append(",\n");
+            json.append("    \"value\": \"").append(node.value.replace("\"", "\\\"")).append("\",\n");
+            json.append("    \"color\": \"").append(node.color.toString()).append("\",\n");
+
+            json.append("    \"inputValues\": [");
+            for(int j = 0; j < node.inputs.size; j++) {
+                json.append("\"").append(node.inputs.get(j).value.replace("\"", "\\\"")).append("\"");
+                if(j < node.inputs.size - 1) json.append(", ");
+            }
+            json.append("],\n");
+
+            json.append("    \"connectionIds\": [");
+            for(int j = 0; j < node.connections.size; j++) {
+                json.append("\"").append(node.connections.get(j).id).append("\"");
+                if(j < node.connections.size - 1) json.append(", ");
+            }
+            json.append("]\n");
+
+            json.append("  }");
+            if(i < nodes.size - 1) json.append(",");
+            json.append("\n");
+        }
+
+        json.append("]");
+        return json.toString();
+    }
+
+    //nodes get fresh ids; connections are remapped from the ids stored in the file
+    public static Seq<Node> read(String json) throws Exception {
+        Seq<Node> loadedNodes = new Seq<>();
+        ObjectMap<String, String> idMap = new ObjectMap<>();
+
+        json = json.trim();
+        if(!json.startsWith("[")) {
+            throw new Exception("Invalid JSON format");
+        }
+
+        json = json.substring(1, json.length() - 1);
+        String[] nodeStrings = json.split("\\},\\s*\\{");
+
+        for(String nodeStr : nodeStrings) {
+            nodeStr = nodeStr.trim();
+            if(!nodeStr.startsWith("{")) nodeStr = "{" + nodeStr;
+            if(!nodeStr.endsWith("}")) nodeStr = nodeStr + "}";
+
+            Node node = new Node();
+
+            String oldId = extractValue(nodeStr, "id");
+            node.type = extractValue(nodeStr, "type");
+            node.label = extractValue(nodeStr, "label");
+
+            try {
+                node.x = Float.parseFloat(extractValue(nodeStr, "x"));
+                node.y = Float.parseFloat(extractValue(nodeStr, "y"));
+            } catch(Exception e) {
+                node.x = 0;
+                node.y = 0;
+            }
+
+            node.value = extractValue(nodeStr, "value");
+
+            try {
+                node.color = Color.valueOf(extractValue(nodeStr, "color"));
+            } catch(Exception e) {
+                node.color = Color.gray;
+            }
+
+            node.setupInputs();
+
+            String inputValuesStr = extractArray(nodeStr, "inputValues");
+            if(inputValuesStr != null && !inputValuesStr.isEmpty()) {
+                String[] values = inputValuesStr.split("\",\\s*\"");
+                for(int i = 0; i < Math.min(node.inputs.size, values.length); i++) {
+                    //only whitespace around the quoted token is dropped; leading spaces are part of a mask
+                    String val = values[i].trim().replace("\"", "").replace("\\\"", "\"");
+                    node.inputs.get(i).set(val);
+                }
+            }
+
+            idMap.put(oldId, node.id);
+            loadedNodes.add(node);
+        }
+
+        for(int i = 0; i < nodeStrings.length; i++) {
+            String nodeStr = nodeStrings[i];
+            Node node = loadedNodes.get(i);
+
+            String connIdsStr = extractArray(nodeStr, "connectionIds");
+            if(connIdsStr != null && !connIdsStr.isEmpty()) {
+                String[] connIds = connIdsStr.split("\",\\s*\"");
+                for(String oldConnId : connIds) {
+                    oldConnId = oldConnId.replace("\"", "").trim();
+                    String newConnId = idMap.get(oldConnId);
+                    if(newConnId != null) {
+                        Node target = loadedNodes.find(n -> n.id.equals(newConnId));
+                        if(target != null) {
+                            node.connect(target);
+                        }
+                    }
+                }
+            }
+        }
+
+        return loadedNodes;
+    }
+
+    private static String extractValue(String json, String key) {
+        String search = "\"" + key + "\":";
+        int start = json.indexOf(search);
+        if(start == -1) return "";
+
+        start += search.length();
+        while(start < json.length() && (json.charAt(start) == ' ' || json.charAt(start) == '\n')) start++;
+
+        if(json.charAt(start) == '"') {
+            start++;
+            int end = start;
+            while(end < json.length()) {
+                if(json.charAt(end) == '"' && (end == 0 || json.charAt(end - 1) != '\\')) {
+                    return json.substring(start, end);
+                }
+                end++;
+            }
+        } else {
+            int end = start;
+            while(end < json.length() && json.charAt(end) != ',' && json.charAt(end) != '\n' && json.charAt(end) != '}') {
+                end++;
+            }
+            return json.substring(start, end).trim();
+        }
+
+        return "";
+    }
+
+    private static String extractArray(String json, String key) {
+        String search = "\"" + key + "\":";
+        int start = json.indexOf(search);
+        if(start == -1) return "";
+
+        start += search.length();
+        while(start < json.length() && json.charAt(start) != '[') start++;
+        if(start >= json.length()) return "";
+
+        start++;
+        int end = json.indexOf(']', start);
+        if(end == -1) return "";
+
+        return json.substring(start, end).trim();
+    }
+}
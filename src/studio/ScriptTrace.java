@@ -0,0 +1,112 @@
+package studio;
+
+import arc.files.*;
+import arc.util.*;
+import mindustry.ctype.*;
+
+//fixed size ring buffer of execution events; records are stored as primitives and only formatted when viewed
+public class ScriptTrace {
+    public static final int LEVEL_DEBUG = 0;
+    public static final int LEVEL_INFO = 1;
+    public static final int LEVEL_WARN = 2;
+    public static final int LEVEL_ERROR = 3;
+    public static final String[] levelNames = {"DEBUG", "INFO", "WARN", "ERROR"};
+
+    public static final int EVENT_NODE = 0;
+    public static final int EVENT_MOD_NODE = 1;
+    public static final int EVENT_FOLDER_CREATED = 2;
+    public static final int EVENT_FILE_WRITTEN = 3;
+    public static final int EVENT_FILE_FAILED = 4;
+    public static final int EVENT_SPAWNED = 5;
+    public static final int EVENT_TILES_SET = 6;
+    public static final int EVENT_NODE_LIMIT = 7;
+    public static final int EVENT_CYCLE_SKIPPED = 8;
+    public static final int EVENT_CYCLE_LIMIT = 9;
+
+    public static final int capacity = 4096;
+
+    //records below this level are dropped before touching the buffer; per-node debug records are opt-in
+    public static int level = LEVEL_INFO;
+
+    private static final byte[] levels = new byte[capacity];
+    private static final byte[] events = new byte[capacity];
+    private static final long[] times = new long[capacity];
+    private static final Object[] subjects = new Object[capacity];
+    private static final float[] values = new float[capacity];
+    private static int head = 0;
+    private static int size = 0;
+
+    public static void record(int recordLevel, int event, Object subject, float value) {
+        if(recordLevel < level) return;
+
+        int i = head;
+        levels[i] = (byte)recordLevel;
+        events[i] = (byte)event;
+        times[i] = Time.millis();
+        subjects[i] = subject;
+        values[i] = value;
+
+        head = (head + 1) % capacity;
+        if(size < capacity) size++;
+    }
+
+    public static int size() {
+        return size;
+    }
+
+    public static void clear() {
+        for(int i = 0; i < capacity; i++) {
+            subjects[i] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+
+    //0 is the newest record
+    private static int index(int age) {
+        return (head - 1 - age + capacity) % capacity;
+    }
+
+    public static int level(int age) {
+        return levels[index(age)];
+    }
+
+    public static String format(int age) {
+        int i = index(age);
+        long ago = Time.timeSinceMillis(times[i]);
+        return "[lightgray]-" + ago + "ms " + color(levels[i]) + levelNames[levels[i]] + "[] " + message(events[i], subjects[i], values[i]);
+    }
+
+    private static String color(int recordLevel) {
+        switch(recordLevel) {
+            case LEVEL_WARN: return "[orange]";
+            case LEVEL_ERROR: return "[scarlet]";
+            case LEVEL_INFO: return "[white]";
+            default: return "[gray]";
+        }
+    }
+
+    private static String message(int event, Object subject, float value) {
+        String name = name(subject);
+        switch(event) {
+            case EVENT_NODE: return "Executed " + name;
+            case EVENT_MOD_NODE: return "Mod node " + name;
+            case EVENT_FOLDER_CREATED: return "Created folder " + name;
+            case EVENT_FILE_WRITTEN: return "Wrote " + name;
+            case EVENT_FILE_FAILED: return "Failed to write " + name;
+            case EVENT_SPAWNED: return "Spawned " + (int)value + " " + name;
+            case EVENT_TILES_SET: return "Set " + (int)value + " tiles to " + name;
+            case EVENT_NODE_LIMIT: return "Stopped at " + name + " after " + (int)value + " nodes";
+            case EVENT_CYCLE_LIMIT: return "Stopped at " + name + " after " + (int)value + " cycle repeats";
+            case EVENT_CYCLE_SKIPPED: return "Skipped link back to " + name + " (cycle)";
+            default: return name;
+        }
+    }
+
+    private static String name(Object subject) {
+        if(subject instanceof Node) return ((Node)subject).label;
+        if(subject instanceof Fi) return ((Fi)subject).path();
+        if(subject instanceof MappableContent) return ((MappableContent)subject).name;
+        return String.valueOf(subject);
+    }
+}
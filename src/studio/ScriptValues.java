@@ -0,0 +1,47 @@
+package studio;
+
+//variable values of one running script, laid out by the slot table of its plan; each slot only uses the array matching its type
+public class ScriptValues {
+    public final ScriptVariables table;
+
+    private final byte[] types;
+    private final int[] ints;
+    private final float[] floats;
+    private final boolean[] bools;
+
+    public ScriptValues(ScriptVariables table) {
+        this.table = table;
+        int size = table.size();
+        types = new byte[size];
+        for(int i = 0; i < size; i++) {
+            types[i] = table.type(i);
+        }
+        ints = new int[size];
+        floats = new float[size];
+        bools = new boolean[size];
+    }
+
+    public float get(int slot) {
+        switch(types[slot]) {
+            case ScriptVariables.TYPE_INT: return ints[slot];
+            case ScriptVariables.TYPE_BOOL: return bools[slot] ? 1f : 0f;
+            default: return floats[slot];
+        }
+    }
+
+    public void set(int slot, float value) {
+        switch(types[slot]) {
+            case ScriptVariables.TYPE_INT: ints[slot] = (int)value; break;
+            case ScriptVariables.TYPE_BOOL: bools[slot] = value != 0f; break;
+            default: floats[slot] = value; break;
+        }
+    }
+
+    public String format(int slot) {
+        switch(types[slot]) {
+            case ScriptVariables.TYPE_INT: return Integer.toString(ints[slot]);
+            case ScriptVariables.TYPE_BOOL: return Boolean.toString(bools[slot]);
+            default: return Float.toString(floats[slot]);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package studio;
+
+import arc.struct.*;
+
+//slot table of a compiled script: names and value types; the values themselves live in each run's ScriptValues
+public class ScriptVariables {
+    public static final byte TYPE_INT = 0;
+    public static final byte TYPE_FLOAT = 1;
+    public static final byte TYPE_BOOL = 2;
+
+    private final ObjectIntMap<String> slots = new ObjectIntMap<>();
+    private final Seq<String> names = new Seq<>();
+    private final ByteSeq types = new ByteSeq();
+
+    //returns the slot for a name, widening its type when it is assigned values of different types
+    public int slot(String name, byte type) {
+        int slot = slots.get(name, -1);
+        if(slot == -1) {
+            slot = names.size;
+            slots.put(name, slot);
+            names.add(name);
+            types.add(type);
+        } else if(types.get(slot) != type) {
+            types.set(slot, TYPE_FLOAT);
+        }
+        return slot;
+    }
+
+    public int find(String name) {
+        return slots.get(name, -1);
+    }
+
+    public int size() {
+        return names.size;
+    }
+
+    public String name(int slot) {
+        return names.get(slot);
+    }
+
+    public byte type(int slot) {
+        return types.get(slot);
+    }
+}
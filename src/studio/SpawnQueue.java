@@ -0,0 +1,90 @@
+package studio;
+
+import arc.math.*;
+import arc.struct.*;
+import mindustry.type.*;
+
+public class SpawnQueue {
+    //placement offsets on a sunflower spiral inside the 32 world unit scatter radius, computed once
+    private static final int offsetCount = 128;
+    private static final float[] offsetX = new float[offsetCount];
+    private static final float[] offsetY = new float[offsetCount];
+
+    static {
+        for(int i = 0; i < offsetCount; i++) {
+            float angle = i * 137.508f;
+            float distance = 32f * Mathf.sqrt((i + 0.5f) / offsetCount);
+            offsetX[i] = Angles.trnsx(angle, distance);
+            offsetY[i] = Angles.trnsy(angle, distance);
+        }
+    }
+
+    private final ScriptHost host;
+    private final Queue<Batch> batches = new Queue<>();
+
+    public SpawnQueue(ScriptHost host) {
+        this.host = host;
+    }
+
+    public void add(UnitType type, float x, float y, int amount) {
+        if(amount <= 0) return;
+
+        Batch batch = new Batch();
+        batch.type = type;
+        batch.x = x;
+        batch.y = y;
+        batch.total = amount;
+        batch.remaining = amount;
+        batch.offset = Mathf.random(offsetCount - 1);
+        batches.addLast(batch);
+    }
+
+    public int pending() {
+        int total = 0;
+        for(int i = 0; i < batches.size; i++) {
+            total += batches.get(i).remaining;
+        }
+        return total;
+    }
+
+    public void clear() {
+        batches.clear();
+    }
+
+    //spawns up to StudioMod.spawnsPerTick queued units; called once per frame
+    public void update() {
+        if(batches.isEmpty()) return;
+
+        if(!host.isActive()) {
+            batches.clear();
+            return;
+        }
+
+        int budget = StudioMod.spawnsPerTick;
+        while(budget > 0 && !batches.isEmpty()) {
+            Batch batch = batches.first();
+            int count = Math.min(budget, batch.remaining);
+
+            for(int i = 0; i < count; i++) {
+                int o = batch.offset;
+                batch.offset = (o + 1) % offsetCount;
+                host.spawn(batch.type, batch.x + offsetX[o], batch.y + offsetY[o]);
+            }
+
+            batch.remaining -= count;
+            budget -= count;
+
+            if(batch.remaining == 0) {
+                batches.removeFirst();
+                ScriptTrace.record(ScriptTrace.LEVEL_INFO, ScriptTrace.EVENT_SPAWNED, batch.type, batch.total);
+                host.message("Spawned " + batch.total + " " + batch.type.name, 2);
+            }
+        }
+    }
+
+    private static class Batch {
+        UnitType type;
+        float x, y;
+        int total, remaining, offset;
+    }
+}
@@ -22,6 +22,20 @@ public class StudioMod extends Mod {
     public static float labelScale = 1.0f;
     public static float infoScale = 1.0f;
     public static float typeScale = 1.0f;
+    //below these canvas zoom levels nodes are drawn as plain boxes, then grouped into blocks
+    public static float lodSimpleZoom = 0.4f;
+    public static float lodClusterZoom = 0.2f;
+    public static int instructionBudget = 500;
+    public static float frameBudgetMs = 2f;
+    public static final ScriptRuntime runtime = new ScriptRuntime(new MindustryHost());
+    public static final ScriptEvents events = new ScriptEvents();
+    public static int spawnsPerTick = 10;
+    public static int tilesPerTick = 200;
+    public static int maxChainDepth = 10000;
+    //hard cap on nodes run by one trigger, Loop iterations included
+    public static int maxNodesPerTrigger = 10000000;
+    //how often cycle back edges may re-run nodes in one trigger
+    public static int maxCycleRepeats = 100000;
 
     public StudioMod() {
         Log.info("Studio - Visual Scripting System loading...");
@@ -29,6 +43,8 @@ public class StudioMod extends Mod {
         Events.on(ClientLoadEvent.class, e -> {
             Log.info("Studio initializing...");
 
+            ContentCache.build();
+
             nodeEditor = new NodeEditor();
 
             addStudioMenuButton();
@@ -185,14 +201,16 @@ public class StudioMod extends Mod {
         msgNode.x = 400;
         msgNode.y = 300;
         msgNode.setupInputs();
-        msgNode.inputs.get(0).value = "Hello from Studio!";
+        msgNode.inputs.get(0).set("Hello from Studio!");
         msgNode.value = "Hello from Studio!";
 
-        startNode.connections.add(msgNode);
+        startNode.connect(msgNode);
 
         nodeEditor.canvas.nodes.add(startNode);
         nodeEditor.canvas.nodes.add(msgNode);
 
+        nodeEditor.canvas.changed();
+
         Vars.ui.showInfoFade("[lime]Loaded: Hello World");
     }
 
@@ -216,16 +234,18 @@ public class StudioMod extends Mod {
         spawnNode.x = 400;
         spawnNode.y = 300;
         spawnNode.setupInputs();
-        spawnNode.inputs.get(0).value = "dagger";
-        spawnNode.inputs.get(1).value = "5";
-        spawnNode.inputs.get(2).value = "At Player";
+        spawnNode.inputs.get(0).set("dagger");
+        spawnNode.inputs.get(1).set("5");
+        spawnNode.inputs.get(2).set("At Player");
         spawnNode.value = "dagger|5|At Player";
 
-        waveNode.connections.add(spawnNode);
+        waveNode.connect(spawnNode);
 
         nodeEditor.canvas.nodes.add(waveNode);
         nodeEditor.canvas.nodes.add(spawnNode);
 
+        nodeEditor.canvas.changed();
+
         Vars.ui.showInfoFade("[lime]Loaded: Auto Spawn");
     }
 
@@ -241,7 +261,7 @@ public class StudioMod extends Mod {
         modFolderNode.x = 100;
         modFolderNode.y = 500;
         modFolderNode.setupInputs();
-        modFolderNode.inputs.get(0).value = "mymod";
+        modFolderNode.inputs.get(0).set("mymod");
         modFolderNode.value = "mymod";
 
         Node hjsonNode = new Node();
@@ -251,9 +271,9 @@ public class StudioMod extends Mod {
         hjsonNode.x = 400;
         hjsonNode.y = 500;
         hjsonNode.setupInputs();
-        hjsonNode.inputs.get(0).value = "mymod";
-        hjsonNode.inputs.get(1).value = "My Mod";
-        hjsonNode.inputs.get(2).value = "Studio";
+        hjsonNode.inputs.get(0).set("mymod");
+        hjsonNode.inputs.get(1).set("My Mod");
+        hjsonNode.inputs.get(2).set("Studio");
         hjsonNode.value = "mymod|My Mod|Studio";
 
         Node contentFolderNode = new Node();
@@ -263,7 +283,7 @@ public class StudioMod extends Mod {
         contentFolderNode.x = 400;
         contentFolderNode.y = 350;
         contentFolderNode.setupInputs();
-        contentFolderNode.inputs.get(0).value = "content";
+        contentFolderNode.inputs.get(0).set("content");
         contentFolderNode.value = "content";
 
         Node blocksFolderNode = new Node();
@@ -273,7 +293,7 @@ public class StudioMod extends Mod {
         blocksFolderNode.x = 700;
         blocksFolderNode.y = 350;
         blocksFolderNode.setupInputs();
-        blocksFolderNode.inputs.get(0).value = "blocks";
+        blocksFolderNode.inputs.get(0).set("blocks");
         blocksFolderNode.value = "blocks";
 
         Node blockFileNode = new Node();
@@ -283,16 +303,16 @@ public class StudioMod extends Mod {
         blockFileNode.x = 1000;
         blockFileNode.y = 350;
         blockFileNode.setupInputs();
-        blockFileNode.inputs.get(0).value = "my-wall";
-        blockFileNode.inputs.get(1).value = "Wall";
-        blockFileNode.inputs.get(2).value = "1000";
-        blockFileNode.inputs.get(3).value = "2";
+        blockFileNode.inputs.get(0).set("my-wall");
+        blockFileNode.inputs.get(1).set("Wall");
+        blockFileNode.inputs.get(2).set("1000");
+        blockFileNode.inputs.get(3).set("2");
         blockFileNode.value = "my-wall|Wall|1000|2";
 
-        modFolderNode.connections.add(hjsonNode);
-        modFolderNode.connections.add(contentFolderNode);
-        contentFolderNode.connections.add(blocksFolderNode);
-        blocksFolderNode.connections.add(blockFileNode);
+        modFolderNode.connect(hjsonNode);
+        modFolderNode.connect(contentFolderNode);
+        contentFolderNode.connect(blocksFolderNode);
+        blocksFolderNode.connect(blockFileNode);
 
         nodeEditor.canvas.nodes.add(modFolderNode);
         nodeEditor.canvas.nodes.add(hjsonNode);
@@ -300,6 +320,8 @@ public class StudioMod extends Mod {
         nodeEditor.canvas.nodes.add(blocksFolderNode);
         nodeEditor.canvas.nodes.add(blockFileNode);
 
+        nodeEditor.canvas.changed();
+
         Vars.ui.showInfoFade("[lime]Loaded: Simple Mod");
     }
 
@@ -413,6 +435,82 @@ public class StudioMod extends Mod {
                 showLabels = val;
             }).padTop(10f).row();
 
+            icon.table(t -> {
+                t.add("Simple Nodes Below Zoom: ").left();
+                t.slider(0.1f, 1.5f, 0.05f, lodSimpleZoom, val -> {
+                    lodSimpleZoom = val;
+                }).width(300f).get();
+                t.add(new Label(() -> String.format("%.2fx", lodSimpleZoom))).padLeft(10f);
+            }).fillX().padTop(10f).row();
+
+            icon.table(t -> {
+                t.add("Group Nodes Below Zoom: ").left();
+                t.slider(0.1f, 1.5f, 0.05f, lodClusterZoom, val -> {
+                    lodClusterZoom = val;
+                }).width(300f).get();
+                t.add(new Label(() -> String.format("%.2fx", lodClusterZoom))).padLeft(10f);
+            }).fillX().padTop(10f).row();
+
+            icon.add("").padTop(20f).row();
+
+            icon.add("[cyan]SCRIPT RUNTIME").padTop(10f).row();
+
+            icon.table(t -> {
+                t.add("Instructions / Frame: ").left();
+                t.slider(50f, 5000f, 50f, instructionBudget, val -> {
+                    instructionBudget = (int)val;
+                }).width(300f).get();
+                t.add(new Label(() -> instructionBudget + "")).padLeft(10f);
+            }).fillX().padTop(10f).row();
+
+            icon.table(t -> {
+                t.add("Time / Frame: ").left();
+                t.slider(0.5f, 8f, 0.5f, frameBudgetMs, val -> {
+                    frameBudgetMs = val;
+                }).width(300f).get();
+                t.add(new Label(() -> String.format("%.1fms", frameBudgetMs))).padLeft(10f);
+            }).fillX().padTop(10f).row();
+
+            icon.table(t -> {
+                t.add("Units Spawned / Frame: ").left();
+                t.slider(1f, 100f, 1f, spawnsPerTick, val -> {
+                    spawnsPerTick = (int)val;
+                }).width(300f).get();
+                t.add(new Label(() -> spawnsPerTick + "")).padLeft(10f);
+            }).fillX().padTop(10f).row();
+
+            icon.table(t -> {
+                t.add("Tiles Set / Frame: ").left();
+                t.slider(10f, 2000f, 10f, tilesPerTick, val -> {
+                    tilesPerTick = (int)val;
+                }).width(300f).get();
+                t.add(new Label(() -> tilesPerTick + "")).padLeft(10f);
+            }).fillX().padTop(10f).row();
+
+            icon.table(t -> {
+                t.add("Max Chain Depth: ").left();
+                t.slider(100f, 20000f, 100f, maxChainDepth, val -> {
+                    maxChainDepth = (int)val;
+                }).width(300f).get();
+                t.add(new Label(() -> maxChainDepth + "")).padLeft(10f);
+            }).fillX().padTop(10f).row();
+
+            icon.table(t -> {
+                t.add("Max Nodes / Trigger: ").left();
+                t.slider(100000f, 100000000f, 100000f, maxNodesPerTrigger, val -> {
+                    maxNodesPerTrigger = (int)val;
+                }).width(300f).get();
+                t.add(new Label(() -> maxNodesPerTrigger + "")).padLeft(10f);
+            }).fillX().padTop(10f).row();
+
+            icon.table(t -> {
+                t.add("Max Cycle Repeats / Trigger: ").left();
+                t.slider(1000f, 1000000f, 1000f, maxCycleRepeats, val -> {
+                    maxCycleRepeats = (int)val;
+                }).width(300f).get();
+                t.add(new Label(() -> maxCycleRepeats + "")).padLeft(10f);
+            }).fillX().padTop(10f).row();
+
             icon.add("").padTop(20f).row();
 
             icon.add("[cyan]QUICK ACCESS").padTop(10f).row();
@@ -468,7 +566,16 @@ public class StudioMod extends Mod {
             json.append("  \"showLabels\": ").append(showLabels).append(",\n");
             json.append("  \"labelScale\": ").append(labelScale).append(",\n");
             json.append("  \"infoScale\": ").append(infoScale).append(",\n");
-            json.append("  \"typeScale\": ").append(typeScale).append("\n");
+            json.append("  \"typeScale\": ").append(typeScale).append(",\n");
+            json.append("  \"lodSimpleZoom\": ").append(lodSimpleZoom).append(",\n");
+            json.append("  \"lodClusterZoom\": ").append(lodClusterZoom).append(",\n");
+            json.append("  \"instructionBudget\": ").append(instructionBudget).append(",\n");
+            json.append("  \"frameBudgetMs\": ").append(frameBudgetMs).append(",\n");
+            json.append("  \"spawnsPerTick\": ").append(spawnsPerTick).append(",\n");
+            json.append("  \"tilesPerTick\": ").append(tilesPerTick).append(",\n");
+            json.append("  \"maxChainDepth\": ").append(maxChainDepth).append(",\n");
+            json.append("  \"maxNodesPerTrigger\": ").append(maxNodesPerTrigger).append(",\n");
+            json.append("  \"maxCycleRepeats\": ").append(maxCycleRepeats).append("\n");
             json.append("}");
 
             settingsFile.writeString(json.toString());
@@ -490,6 +597,15 @@ public class StudioMod extends Mod {
                 labelScale = parseFloat(json, "labelScale", 1.0f);
                 infoScale = parseFloat(json, "infoScale", 1.0f);
                 typeScale = parseFloat(json, "typeScale", 1.0f);
+                lodSimpleZoom = parseFloat(json, "lodSimpleZoom", 0.4f);
+                lodClusterZoom = parseFloat(json, "lodClusterZoom", 0.2f);
+                instructionBudget = (int)parseFloat(json, "instructionBudget", 500f);
+                frameBudgetMs = parseFloat(json, "frameBudgetMs", 2f);
+                spawnsPerTick = (int)parseFloat(json, "spawnsPerTick", 10f);
+                tilesPerTick = (int)parseFloat(json, "tilesPerTick", 200f);
+                maxChainDepth = (int)parseFloat(json, "maxChainDepth", 10000f);
+                maxNodesPerTrigger = (int)parseFloat(json, "maxNodesPerTrigger", 10000000f);
+                maxCycleRepeats = (int)parseFloat(json, "maxCycleRepeats", 100000f);
 
                 updateFloatingButton();
                 Log.info("Settings loaded!");
@@ -539,146 +655,12 @@ public class StudioMod extends Mod {
         } catch(Exception e) {
             return defaultValue;
         }
-    }public static void executeNodeChain(Node startNode, Node previousNode) {
-        if(startNode == null) return;
-
-        Log.info("Executing node: " + startNode.label);
-
-        switch(startNode.type) {
-            case "event":
-                break;
-
-            case "action":
-                executeAction(startNode);
-                break;
-
-            case "logic":
-                executeLogic(startNode);
-                break;
-        }
-
-        for(Node connected : startNode.connections) {
-            executeNodeChain(connected, startNode);
-        }
-    }
-
-    private static void executeAction(Node node) {
-        switch(node.label) {
-            case "Message":
-                String message = node.inputs.size > 0 ? node.inputs.get(0).value : "Hello!";
-                Vars.ui.showInfoToast(message, 3);
-                break;
-
-            case "Spawn Unit":
-                spawnUnits(node);
-                break;
-
-            case "Set Block":
-                setBlock(node);
-                break;
-        }
-    }
-
-    private static void spawnUnits(Node node) {
-        try {
-            if(node.inputs.size < 3) return;
-
-            String unitName = node.inputs.get(0).value;
-            int amount = Integer.parseInt(node.inputs.get(1).value);
-            String spawnLocation = node.inputs.get(2).value;
-
-            mindustry.type.UnitType unitType = mindustry.content.UnitTypes.dagger;
-
-            for(mindustry.type.UnitType type : Vars.content.units()) {
-                if(type.name.equals(unitName)) {
-                    unitType = type;
-                    break;
-                }
-            }
-
-            float spawnX = Vars.player.x;
-            float spawnY = Vars.player.y;
-
-            if(spawnLocation.equals("At Core")) {
-                mindustry.world.blocks.storage.CoreBlock.CoreBuild core = Vars.player.team().core();
-                if(core != null) {
-                    float angle = arc.math.Mathf.random(360f);
-                    spawnX = core.x + arc.math.Angles.trnsx(angle, 800f * 8f);
-                    spawnY = core.y + arc.math.Angles.trnsy(angle, 800f * 8f);
-                }
-            } else if(spawnLocation.equals("At Player")) {
-                float angle = arc.math.Mathf.random(360f);
-                float distance = arc.math.Mathf.random(64f, 128f);
-                spawnX = Vars.player.x + arc.math.Angles.trnsx(angle, distance);
-                spawnY = Vars.player.y + arc.math.Angles.trnsy(angle, distance);
-            }
-
-            for(int i = 0; i < amount; i++) {
-                float angle = arc.math.Mathf.random(360f);
-                float distance = arc.math.Mathf.random(32f);
-                float finalX = spawnX + arc.math.Angles.trnsx(angle, distance);
-                float finalY = spawnY + arc.math.Angles.trnsy(angle, distance);
-
-                unitType.spawn(Vars.player.team(), finalX, finalY);
-            }
-
-            Log.info("Spawned " + amount + " " + unitName + " at " + spawnLocation);
-            Vars.ui.showInfoToast("Spawned " + amount + " " + unitName, 2);
-
-        } catch(Exception e) {
-            Log.err("Failed to spawn unit", e);
-        }
-    }
-
-    private static void setBlock(Node node) {
-        try {
-            if(node.inputs.size < 3) return;
-
-            String blockName = node.inputs.get(0).value;
-            int x = Integer.parseInt(node.inputs.get(1).value);
-            int y = Integer.parseInt(node.inputs.get(2).value);
-
-            mindustry.world.Block block = mindustry.content.Blocks.copperWall;
-
-            for(mindustry.world.Block b : Vars.content.blocks()) {
-                if(b.name.equals(blockName)) {
-                    block = b;
-                    break;
-                }
-            }
-
-            mindustry.world.Tile tile = Vars.world.tile(x, y);
-            if(tile != null) {
-                tile.setNet(block, Vars.player.team(), 0);
-                Vars.ui.showInfoToast("Placed " + blockName, 2);
-            }
-
-        } catch(Exception e) {
-            Log.err("Failed to set block", e);
-        }
-    }
-
-    private static void executeLogic(Node node) {
-        switch(node.label) {
-            case "Wait":
-                break;
-
-            case "If":
-                break;
-
-            case "Loop":
-                break;
-
-            case "Set Variable":
-                break;
-
-            case "Get Variable":
-                break;
-        }
     }
 
     @Override
     public void init() {
+        Events.run(Trigger.update, runtime::update);
+
         Events.on(WorldLoadEvent.class, e -> {
             saveSettings();
         });